@@ -2,7 +2,7 @@ package api.model;
 
 import java.util.Objects;
 
-public class Car {
+public class Car implements DirtyTracked {
     private int id;
     private String plate;
     private String brand;
@@ -11,6 +11,7 @@ public class Car {
     private int year;
     private String color;
     private CarStatus status;
+    private boolean dirty = true;
 
     public Car(int id, String plate, String brand, String type, String model, int year, String color, CarStatus status) {
         this.id = id;
@@ -24,31 +25,34 @@ public class Car {
     }
 
     public int getId() { return id; }
-    public void setId(int id) { this.id = id; }
+    public void setId(int id) { dirty |= this.id != id; this.id = id; }
 
     public String getPlate() { return plate; }
-    public void setPlate(String plate) { this.plate = plate; }
+    public void setPlate(String plate) { dirty |= !Objects.equals(this.plate, plate); this.plate = plate; }
 
     public String getBrand() { return brand; }
-    public void setBrand(String brand) { this.brand = brand; }
+    public void setBrand(String brand) { dirty |= !Objects.equals(this.brand, brand); this.brand = brand; }
 
     public String getType() { return type; }
-    public void setType(String type) { this.type = type; }
+    public void setType(String type) { dirty |= !Objects.equals(this.type, type); this.type = type; }
 
     public String getModel() { return model; }
-    public void setModel(String model) { this.model = model; }
+    public void setModel(String model) { dirty |= !Objects.equals(this.model, model); this.model = model; }
 
     public int getYear() { return year; }
-    public void setYear(int year) { this.year = year; }
+    public void setYear(int year) { dirty |= this.year != year; this.year = year; }
 
     public String getColor() { return color; }
-    public void setColor(String color) { this.color = color; }
+    public void setColor(String color) { dirty |= !Objects.equals(this.color, color); this.color = color; }
 
     public CarStatus getStatus() { return status; }
-    public void setStatus(CarStatus status) { this.status = status; }
+    public void setStatus(CarStatus status) { dirty |= this.status != status; this.status = status; }
 
     public boolean isAvailable() { return status == CarStatus.AVAILABLE; }
 
+    @Override public boolean isDirty() { return dirty; }
+    @Override public void markClean() { dirty = false; }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -64,6 +68,6 @@ public class Car {
 
     @Override
     public String toString() {
-        return String.format("%s %s (%s) [%s]", brand, model, plate, status.toGreek());
+        return brand + " " + model + " (" + plate + ") [" + status.toGreek() + "]";
     }
 }
@@ -2,11 +2,12 @@ package api.model;
 
 import java.util.Objects;
 
-public class Customer {
+public class Customer implements DirtyTracked {
     private String afm;
     private String fullName;
     private String phone;
     private String email;
+    private boolean dirty = true;
 
     public Customer(String afm, String fullName, String phone, String email) {
         this.afm = afm;
@@ -16,16 +17,19 @@ public class Customer {
     }
 
     public String getAfm() { return afm; }
-    public void setAfm(String afm) { this.afm = afm; }
+    public void setAfm(String afm) { dirty |= !Objects.equals(this.afm, afm); this.afm = afm; }
 
     public String getFullName() { return fullName; }
-    public void setFullName(String fullName) { this.fullName = fullName; }
+    public void setFullName(String fullName) { dirty |= !Objects.equals(this.fullName, fullName); this.fullName = fullName; }
 
     public String getPhone() { return phone; }
-    public void setPhone(String phone) { this.phone = phone; }
+    public void setPhone(String phone) { dirty |= !Objects.equals(this.phone, phone); this.phone = phone; }
 
     public String getEmail() { return email; }
-    public void setEmail(String email) { this.email = email; }
+    public void setEmail(String email) { dirty |= !Objects.equals(this.email, email); this.email = email; }
+
+    @Override public boolean isDirty() { return dirty; }
+    @Override public void markClean() { dirty = false; }
 
     @Override
     public boolean equals(Object o) {
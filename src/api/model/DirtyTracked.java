@@ -0,0 +1,15 @@
+package api.model;
+
+/**
+ * Εγγραφή που ξέρει αν διαφέρει από ό,τι έγραψε τελευταία φορά η αποθήκευση.
+ * Τα νέα αντικείμενα ξεκινούν dirty (δεν έχουν γραφτεί ποτέ) και οι setters το ενεργοποιούν μόνο
+ * όταν αλλάζει πραγματικά η τιμή, ώστε να γράφονται μόνο οι εγγραφές που άλλαξαν.
+ */
+public interface DirtyTracked {
+
+    /** true αν η εγγραφή άλλαξε (ή είναι νέα) από την τελευταία αποθήκευση. */
+    boolean isDirty();
+
+    /** Καλείται από την αποθήκευση όταν η τρέχουσα κατάσταση γραφτεί (ή μόλις φορτωθεί). */
+    void markClean();
+}
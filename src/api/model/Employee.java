@@ -2,11 +2,12 @@ package api.model;
 
 import java.util.Objects;
 
-public class Employee {
+public class Employee implements DirtyTracked {
     private String fullName;
     private String username;
     private String email;
     private String password;
+    private boolean dirty = true;
 
     public Employee(String fullName, String username, String email, String password) {
         this.fullName = fullName;
@@ -16,16 +17,19 @@ public class Employee {
     }
 
     public String getFullName() { return fullName; }
-    public void setFullName(String fullName) { this.fullName = fullName; }
+    public void setFullName(String fullName) { dirty |= !Objects.equals(this.fullName, fullName); this.fullName = fullName; }
 
     public String getUsername() { return username; }
-    public void setUsername(String username) { this.username = username; }
+    public void setUsername(String username) { dirty |= !Objects.equals(this.username, username); this.username = username; }
 
     public String getEmail() { return email; }
-    public void setEmail(String email) { this.email = email; }
+    public void setEmail(String email) { dirty |= !Objects.equals(this.email, email); this.email = email; }
 
     public String getPassword() { return password; }
-    public void setPassword(String password) { this.password = password; }
+    public void setPassword(String password) { dirty |= !Objects.equals(this.password, password); this.password = password; }
+
+    @Override public boolean isDirty() { return dirty; }
+    @Override public void markClean() { dirty = false; }
 
     @Override
     public boolean equals(Object o) {
@@ -3,7 +3,7 @@ package api.model;
 import java.time.LocalDate;
 import java.util.Objects;
 
-public class Rental {
+public class Rental implements DirtyTracked {
     private long rentalId;
     private int carId;
     private String customerAfm;
@@ -12,6 +12,7 @@ public class Rental {
     private LocalDate endDate;
     private boolean returned;
     private LocalDate actualReturnDate;
+    private boolean dirty = true;
 
     public Rental(long rentalId, int carId, String customerAfm, String employeeUsername,
                   LocalDate startDate, LocalDate endDate, boolean returned, LocalDate actualReturnDate) {
@@ -34,14 +35,18 @@ public class Rental {
     public boolean isReturned() { return returned; }
     public LocalDate getActualReturnDate() { return actualReturnDate; }
 
-    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
-    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public void setStartDate(LocalDate startDate) { dirty |= !Objects.equals(this.startDate, startDate); this.startDate = startDate; }
+    public void setEndDate(LocalDate endDate) { dirty |= !Objects.equals(this.endDate, endDate); this.endDate = endDate; }
 
     public void markReturned(LocalDate when) {
+        dirty |= !returned || !Objects.equals(actualReturnDate, when);
         this.returned = true;
         this.actualReturnDate = when;
     }
 
+    @Override public boolean isDirty() { return dirty; }
+    @Override public void markClean() { dirty = false; }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
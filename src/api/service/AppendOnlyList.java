@@ -0,0 +1,101 @@
+package api.service;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * Λίστα για έναν writer (κάτω από lock) και πολλούς αναγνώστες χωρίς lock.
+ * Κάθε αλλαγή δημοσιεύει ένα νέο αμετάβλητο στιγμιότυπο (πίνακας + μέγεθος) μέσω volatile πεδίου:
+ * το {@link #snapshot()} κοστίζει O(1) χωρίς αντιγραφή και το αποτέλεσμα δεν αλλάζει ποτέ.
+ * Η προσθήκη γράφει στις ελεύθερες θέσεις του κοινού πίνακα, τις οποίες τα παλαιότερα
+ * στιγμιότυπα δεν βλέπουν· η αφαίρεση αντιγράφει (copy-on-write).
+ */
+final class AppendOnlyList<T> extends AbstractList<T> implements RandomAccess {
+    private volatile Snapshot<T> current;
+
+    AppendOnlyList() {
+        current = new Snapshot<>(new Object[8], 0);
+    }
+
+    AppendOnlyList(Collection<? extends T> initial) {
+        reset(initial);
+    }
+
+    /** Το τρέχον στιγμιότυπο· αμετάβλητο και ασφαλές για χρήση από οποιοδήποτε thread. */
+    List<T> snapshot() {
+        return current;
+    }
+
+    @Override
+    public T get(int index) {
+        return current.get(index);
+    }
+
+    @Override
+    public int size() {
+        return current.size;
+    }
+
+    // ---------------- Writers (caller holds the write lock) ----------------
+
+    @Override
+    public boolean add(T e) {
+        Snapshot<T> s = current;
+        Object[] a = s.elements;
+        if (s.size == a.length) a = Arrays.copyOf(a, Math.max(8, a.length * 2));
+        a[s.size] = e; // beyond every published size, so no reader can see it yet
+        current = new Snapshot<>(a, s.size + 1);
+        return true;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Snapshot<T> s = current;
+        Object[] kept = new Object[Math.max(8, s.elements.length)];
+        int n = 0;
+        for (int i = 0; i < s.size; i++) {
+            @SuppressWarnings("unchecked") T e = (T) s.elements[i];
+            if (!filter.test(e)) kept[n++] = e;
+        }
+        if (n == s.size) return false;
+        current = new Snapshot<>(kept, n);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        return removeIf(c::contains);
+    }
+
+    /** Αντικατάσταση όλου του περιεχομένου (π.χ. στην επαναφόρτωση). */
+    void reset(Collection<? extends T> items) {
+        Object[] a = items.toArray();
+        current = new Snapshot<>(Arrays.copyOf(a, Math.max(8, a.length)), a.length);
+    }
+
+    private static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+        private final Object[] elements;
+        private final int size;
+
+        Snapshot(Object[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            return (T) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package api.service;
+
+import api.model.Car;
+import api.model.Customer;
+import api.model.Employee;
+import api.model.Rental;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ασύγχρονη πρόσοψη του {@link CarRentalSystem} για το GUI: οι μεταβολές (που γράφουν σε αρχεία)
+ * εκτελούνται σε ξεχωριστό thread I/O και επιστρέφουν {@link CompletableFuture}, ώστε το EDT
+ * να μη μπλοκάρει ποτέ. Οι εργασίες εκτελούνται με τη σειρά υποβολής.
+ * Οι αναγνώσεις γίνονται από τη μνήμη και μένουν σύγχρονες μέσω του {@link #getSystem()}.
+ * <p>
+ * Οι μεταβολές καταγράφονται στον υπάλληλο που ήταν συνδεδεμένος όταν υποβλήθηκαν, όχι όταν
+ * εκτελούνται, ώστε ένα logout ή νέο login να μην επηρεάζει εργασίες που περιμένουν στην ουρά.
+ * <p>
+ * Τα futures ολοκληρώνονται εξαιρετικά με την αρχική {@link ValidationException}/{@link IOException}.
+ */
+public class AsyncCarRentalSystem {
+
+    /** Κλήση προς το σύστημα που μπορεί να πετάξει τις checked εξαιρέσεις του. */
+    public interface Call<T> {
+        T call() throws ValidationException, IOException;
+    }
+
+    private final CarRentalSystem system;
+    private final ExecutorService io;
+
+    public AsyncCarRentalSystem(CarRentalSystem system) {
+        this.system = system;
+        this.io = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "service-io");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public CarRentalSystem getSystem() { return system; }
+
+    /** Εκτέλεση οποιασδήποτε κλήσης στο thread I/O. */
+    public <T> CompletableFuture<T> submit(Call<T> call) {
+        CompletableFuture<T> f = new CompletableFuture<>();
+        io.execute(() -> {
+            try {
+                f.complete(call.call());
+            } catch (ValidationException | IOException | RuntimeException e) {
+                f.completeExceptionally(e);
+            }
+        });
+        return f;
+    }
+
+    public CompletableFuture<Void> addCar(Car car) {
+        Employee actor = system.getLoggedIn();
+        return submit(() -> { system.addCar(actor, car); return null; });
+    }
+
+    public CompletableFuture<Void> updateCar(Car car) {
+        Employee actor = system.getLoggedIn();
+        return submit(() -> { system.updateCar(actor, car); return null; });
+    }
+
+    public CompletableFuture<Void> addCustomer(Customer c) {
+        Employee actor = system.getLoggedIn();
+        return submit(() -> { system.addCustomer(actor, c); return null; });
+    }
+
+    public CompletableFuture<Void> updateCustomer(Customer c) {
+        Employee actor = system.getLoggedIn();
+        return submit(() -> { system.updateCustomer(actor, c); return null; });
+    }
+
+    public CompletableFuture<Void> addEmployee(Employee e) {
+        Employee actor = system.getLoggedIn();
+        return submit(() -> { system.addEmployee(actor, e); return null; });
+    }
+
+    public CompletableFuture<Void> deleteEmployee(String username) {
+        Employee actor = system.getLoggedIn();
+        return submit(() -> { system.deleteEmployee(actor, username); return null; });
+    }
+
+    public CompletableFuture<Rental> rentCar(int carId, String customerAfm, LocalDate start, LocalDate end) {
+        Employee actor = system.getLoggedIn();
+        return submit(() -> system.rentCar(actor, carId, customerAfm, start, end));
+    }
+
+    public CompletableFuture<Void> returnRental(long rentalId) {
+        Employee actor = system.getLoggedIn();
+        return submit(() -> { system.returnRental(actor, rentalId); return null; });
+    }
+
+    public CompletableFuture<List<Rental>> rentCars(List<RentalRequest> requests) {
+        Employee actor = system.getLoggedIn();
+        return submit(() -> system.rentCars(actor, requests));
+    }
+
+    public CompletableFuture<Void> returnRentals(List<Long> rentalIds) {
+        Employee actor = system.getLoggedIn();
+        return submit(() -> { system.returnRentals(actor, rentalIds); return null; });
+    }
+
+    /**
+     * Ολοκληρώνει τις εργασίες που έχουν ήδη υποβληθεί και σταματά το thread I/O.
+     * @return false αν κάποια εργασία έτρεχε ακόμη όταν έληξε η αναμονή
+     */
+    public boolean shutdown() throws InterruptedException {
+        io.shutdown();
+        return io.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Κανονικό κλείσιμο: πρώτα ολοκληρώνονται οι εργασίες σε εξέλιξη, μετά γράφονται (με fsync)
+     * οι αλλαγές τους και κλείνει το store.
+     */
+    public void close() throws IOException, InterruptedException {
+        if (!shutdown()) System.err.println("AsyncCarRentalSystem: tasks still running at shutdown");
+        system.close();
+    }
+}
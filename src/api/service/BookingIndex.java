@@ -0,0 +1,58 @@
+package api.service;
+
+import api.model.Rental;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Ανά αυτοκίνητο, οι μη ολοκληρωμένες ενοικιάσεις και κρατήσεις ταξινομημένες κατά ημερομηνία έναρξης.
+ * Επειδή δεν επιτρέπονται επικαλύψεις, τα διαστήματα κάθε αυτοκινήτου είναι ξένα μεταξύ τους και
+ * ο έλεγχος επικάλυψης είναι μία αναζήτηση O(log n) στο TreeSet.
+ */
+final class BookingIndex {
+    private static final Comparator<Rental> BY_START =
+            Comparator.comparing(Rental::getStartDate).thenComparingLong(Rental::getRentalId);
+
+    private final Map<Integer, NavigableSet<Rental>> byCar = new HashMap<>();
+
+    void clear() {
+        byCar.clear();
+    }
+
+    void add(Rental r) {
+        byCar.computeIfAbsent(r.getCarId(), k -> new TreeSet<>(BY_START)).add(r);
+    }
+
+    void remove(Rental r) {
+        NavigableSet<Rental> set = byCar.get(r.getCarId());
+        if (set == null) return;
+        set.remove(r);
+        if (set.isEmpty()) byCar.remove(r.getCarId());
+    }
+
+    /**
+     * Η κράτηση που επικαλύπτει το [from, to] (με τις δύο άκρες), ή null αν το αυτοκίνητο είναι ελεύθερο.
+     * Μια ενοικίαση που έχει ξεκινήσει και δεν έχει επιστραφεί θεωρείται ότι κρατά το αυτοκίνητο
+     * τουλάχιστον μέχρι σήμερα, ακόμη κι αν έχει περάσει η προβλεπόμενη λήξη.
+     */
+    Rental findOverlap(int carId, LocalDate from, LocalDate to, LocalDate today) {
+        NavigableSet<Rental> set = byCar.get(carId);
+        if (set == null) return null;
+        // bookings starting after 'to' cannot overlap; since intervals are disjoint, only the
+        // last booking that starts in time can reach into [from, to]
+        Rental probe = new Rental(Long.MAX_VALUE, carId, null, null, to, to, false, null);
+        Rental b = set.floor(probe);
+        if (b == null || effectiveEnd(b, today).isBefore(from)) return null;
+        return b;
+    }
+
+    private static LocalDate effectiveEnd(Rental b, LocalDate today) {
+        if (!b.getStartDate().isAfter(today) && b.getEndDate().isBefore(today)) return today;
+        return b.getEndDate();
+    }
+}
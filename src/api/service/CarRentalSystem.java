@@ -5,47 +5,284 @@ import api.model.CarStatus;
 import api.model.Customer;
 import api.model.Employee;
 import api.model.Rental;
+import api.storage.ArchiveBounds;
 import api.storage.DataStore;
+import api.storage.IdAllocator;
+import api.storage.LoadedData;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Κεντρική λογική εφαρμογής (CRUD + αναζητήσεις + ενοικιάσεις/επιστροφές).
- * Όλες οι αλλαγές αποθηκεύονται άμεσα στα αρχεία.
+ * Όλες οι αλλαγές παραδίδονται άμεσα στο {@link DataStore} (σύγχρονα ή με group commit,
+ * ανάλογα με το {@link api.storage.Durability})· οι ενοικιάσεις/επιστροφές γράφονται ως
+ * append στο journal και συμπτύσσονται περιοδικά στο rentals.csv.
+ * Στη μνήμη μένουν μόνο οι ενεργές και οι πρόσφατες ενοικιάσεις· όσες επιστράφηκαν πριν από
+ * {@value #HOT_RETENTION_DAYS} μέρες μεταφέρονται στο αρχείο ανά μήνα και διαβάζονται μόνο από τις
+ * αναζητήσεις ιστορικού.
+ * <p>
+ * Thread-safe: οι δομές στη μνήμη προστατεύονται από ένα {@link StampedLock} (οι αναζητήσεις
+ * ενός κλειδιού είναι optimistic και δεν μπλοκάρουν, οι σαρώσεις παίρνουν read lock), ενώ οι ενοικιάσεις/επιστροφές σειριοποιούνται ανά
+ * αυτοκίνητο μέσω lock striping, ώστε λειτουργίες σε διαφορετικά αυτοκίνητα να τρέχουν παράλληλα.
  */
 public class CarRentalSystem {
+    private static final int RENTAL_ID_BLOCK = 64;
+    private static final int CAR_LOCK_STRIPES = 64;
+    /** Κάθε πόσο ελέγχεται αν άλλαξε η ημέρα (ώστε να ξεκινήσουν οι κρατήσεις της νέας ημέρας). */
+    private static final long DAY_CHECK_SECONDS = 60;
+    /** Μέρες μετά την επιστροφή που μια ενοικίαση μένει στο rentals.csv πριν αρχειοθετηθεί. */
+    public static final int HOT_RETENTION_DAYS = 90;
+
     private final DataStore store;
+    private final IdAllocator rentalIds;
+
+    /*
+     * Locking: every structure below is guarded by `state`. Anything that reads and then changes
+     * a car's status or bookings also holds the car's stripe for the whole check-then-act, so the
+     * double-booking check cannot race with another rental of the same car. Stripes are taken
+     * before `state`, never the other way round.
+     */
+    private final StampedLock state = new StampedLock();
+    private final LockStripes carLocks = new LockStripes(CAR_LOCK_STRIPES);
+
+    // Published as immutable snapshots: the getters hand them out without copying.
+    private final AppendOnlyList<Employee> employees = new AppendOnlyList<>();
+    private final AppendOnlyList<Car> cars = new AppendOnlyList<>();
+    private final AppendOnlyList<Customer> customers = new AppendOnlyList<>();
+    private final AppendOnlyList<Rental> rentals = new AppendOnlyList<>();
+
+    // Primary-key indexes: rebuilt in reloadAll(), maintained by every add/update/delete.
+    private final Map<Integer, Car> carsById = new HashMap<>();
+    private final Map<String, Car> carsByPlate = new HashMap<>();
+    private final Map<String, Customer> customersByAfm = new HashMap<>();
+    private final Map<Long, Rental> rentalsById = new HashMap<>();
+    private final Map<String, Employee> employeesByUsername = new HashMap<>();
+    private final Map<String, Employee> employeesByUsernameKey = new HashMap<>();
+    private final Map<String, Employee> employeesByEmailKey = new HashMap<>();
+
+    // Rental secondary indexes (history per car/customer, active set), in rental list order.
+    private final Map<Integer, AppendOnlyList<Rental>> rentalsByCar = new HashMap<>();
+    private final Map<String, AppendOnlyList<Rental>> rentalsByCustomer = new HashMap<>();
+    private final Map<Long, Rental> activeRentals = new LinkedHashMap<>();
+
+    // Sorted rental indexes for paging; skip lists so pages can be read while rentals are added.
+    private final Map<RentalQuery.SortKey, NavigableSet<Rental>> rentalsSorted = new EnumMap<>(RentalQuery.SortKey.class);
+
+    private final CarSearchIndex carSearch = new CarSearchIndex();
+    private final CustomerSearchIndex customerSearch = new CustomerSearchIndex();
+    private final Map<String, List<Car>> carsByType = new HashMap<>();
+    private final BookingIndex bookings = new BookingIndex();
+
+    private volatile Employee loggedIn;
 
-    private List<Employee> employees;
-    private List<Car> cars;
-    private List<Customer> customers;
-    private List<Rental> rentals;
+    private final List<DataChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong version = new AtomicLong();
 
-    private Employee loggedIn;
+    // the day the car statuses were last derived for; a reservation starting later is not RENTED yet
+    private volatile LocalDate statusesAsOf;
+
+    // one daemon for every instance; it only holds them weakly, so a dropped system is not kept alive
+    private static final ScheduledExecutorService DAY_WATCH = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "day-rollover");
+        t.setDaemon(true);
+        return t;
+    });
 
     public CarRentalSystem(DataStore store) throws IOException {
         this.store = store;
+        for (RentalQuery.SortKey key : RentalQuery.SortKey.values()) {
+            rentalsSorted.put(key, new ConcurrentSkipListSet<>(key.order()));
+        }
+        this.rentalIds = new IdAllocator(store, "nextRentalId", RENTAL_ID_BLOCK);
         reloadAll();
+        DayWatch.start(this);
+    }
+
+    /**
+     * Ελέγχει περιοδικά για αλλαγή ημέρας όσο υπάρχει το σύστημα. Μια αποτυχία αναφέρεται στις
+     * προβολές (μία φορά ανά σειρά αποτυχιών) και η ημέρα ξαναδοκιμάζεται στον επόμενο έλεγχο.
+     */
+    private static final class DayWatch implements Runnable {
+        private final WeakReference<CarRentalSystem> system;
+        private volatile ScheduledFuture<?> task;
+        private boolean failing; // only touched by the DAY_WATCH thread
+
+        private DayWatch(CarRentalSystem system) {
+            this.system = new WeakReference<>(system);
+        }
+
+        static void start(CarRentalSystem system) {
+            DayWatch w = new DayWatch(system);
+            w.task = DAY_WATCH.scheduleWithFixedDelay(w, DAY_CHECK_SECONDS, DAY_CHECK_SECONDS, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void run() {
+            CarRentalSystem s = system.get();
+            if (s == null) {
+                task.cancel(false);
+                return;
+            }
+            try {
+                s.rollOverIfNewDay();
+                failing = false;
+            } catch (IOException | RuntimeException e) {
+                // reconcile undid its repairs and kept the old day, so the next tick retries it
+                if (!failing) {
+                    // headless (no views listening) the log is the only place left to report it
+                    if (s.listeners.isEmpty()) System.err.println("CarRentalSystem: day rollover failed, retrying: " + e.getMessage());
+                    s.publish(DataChangeEvent.Kind.BACKGROUND_FAILURE, e);
+                }
+                failing = true;
+            }
+        }
+    }
+
+    /**
+     * Στην αλλαγή ημέρας οι κρατήσεις που ξεκινούν σήμερα γίνονται ενοικιάσεις: τα αυτοκίνητά τους
+     * περνούν σε «Ενοικιασμένο» μέσω του {@link #reconcile()}, με αποθήκευση και ειδοποίηση των προβολών.
+     */
+    private void rollOverIfNewDay() throws IOException {
+        if (LocalDate.now().isAfter(statusesAsOf)) reconcile();
+    }
+
+    /**
+     * Γράφει με fsync ό,τι εκκρεμεί, ανανεώνει το binary snapshot ώστε η επόμενη εκκίνηση να το
+     * χρησιμοποιήσει, και κλείνει το store. Καλείται στο κανονικό κλείσιμο της εφαρμογής,
+     * αφού σταματήσουν όσοι αλλάζουν δεδομένα.
+     */
+    public void close() throws IOException {
+        refreshSnapshot();
+        store.close();
+    }
+
+    /*
+     * The write lock is taken (not the read lock) because a mutator changes memory under the write
+     * lock and queues its lines after converting to a read lock: once the write lock is ours, every
+     * change visible in memory is in the store's queue, which refreshSnapshot flushes first.
+     */
+    private void refreshSnapshot() {
+        long stamp = state.writeLock();
+        try {
+            store.refreshSnapshot(employees, cars, customers, rentals);
+        } finally {
+            state.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Επαναφόρτωση από τα αρχεία (ή από το binary snapshot όταν είναι ενημερωμένο), με έλεγχο
+     * συνέπειας των καταστάσεων· τα αρχεία ξαναγράφονται μόνο αν κάτι διορθώθηκε.
+     */
+    public final ConsistencyReport reloadAll() throws IOException {
+        ConsistencyReport report;
+        carLocks.lockAll();
+        try {
+            store.ensureInitialized();
+            LoadedData data = store.loadAll();
+            long stamp = state.writeLock();
+            try {
+                employees.reset(data.getEmployees());
+                cars.reset(data.getCars());
+                customers.reset(data.getCustomers());
+                rentals.reset(data.getRentals());
+                for (Rental r : rentals) rentalIds.ensureAbove(r.getRentalId());
+                rentalIds.ensureAbove(store.maxArchivedRentalId());
+                rebuildIndexes();
+                // the files may have been edited by hand
+                LocalDate today = LocalDate.now();
+                report = repairStatuses(today);
+                statusesAsOf = today;
+                // history that aged out since the last run (or all of it, the first time)
+                List<Rental> old = archivable(LocalDate.now());
+                if (!old.isEmpty()) {
+                    store.archiveRentals(old, remainingAfter(old));
+                    dropArchived(old);
+                }
+                stamp = state.tryConvertToReadLock(stamp);
+                if (!report.isClean()) store.saveCarChanges(repairedCars(report), cars);
+                store.refreshSnapshot(employees, cars, customers, rentals);
+            } finally {
+                state.unlock(stamp);
+            }
+        } finally {
+            carLocks.unlockAll();
+        }
+        publish(DataChangeEvent.Kind.RELOADED, null);
+        return report;
+    }
+
+    /**
+     * Έλεγχος συνέπειας: η κατάσταση κάθε αυτοκινήτου πρέπει να συμφωνεί με τις ενεργές ενοικιάσεις
+     * (οι μελλοντικές κρατήσεις δεν μετρούν). Διορθώνει και αποθηκεύει μόνο ό,τι διαφέρει.
+     * Αν η αποθήκευση αποτύχει, οι διορθώσεις αναιρούνται στη μνήμη, ώστε η επόμενη κλήση να τις
+     * ξαναβρεί και να τις ξαναδοκιμάσει.
+     */
+    public ConsistencyReport reconcile() throws IOException {
+        ConsistencyReport report;
+        carLocks.lockAll();
+        try {
+            LocalDate today = LocalDate.now();
+            long stamp = state.writeLock();
+            try {
+                report = repairStatuses(today);
+                stamp = state.tryConvertToReadLock(stamp);
+                try {
+                    if (!report.isClean()) store.saveCarChanges(repairedCars(report), cars);
+                } catch (IOException | RuntimeException e) {
+                    // every car stripe is still held, so nothing else changed these cars meanwhile
+                    state.unlockRead(stamp);
+                    stamp = state.writeLock();
+                    for (ConsistencyReport.Repair r : report.getRepairs()) carsById.get(r.getCarId()).setStatus(r.getFrom());
+                    throw e;
+                }
+            } finally {
+                state.unlock(stamp);
+            }
+            statusesAsOf = today;
+        } finally {
+            carLocks.unlockAll();
+        }
+        for (ConsistencyReport.Repair r : report.getRepairs()) {
+            publish(DataChangeEvent.Kind.CAR_UPDATED, findCarById(r.getCarId()));
+        }
+        return report;
+    }
+
+    private List<Car> repairedCars(ConsistencyReport report) {
+        List<Car> out = new ArrayList<>(report.getRepairs().size());
+        for (ConsistencyReport.Repair r : report.getRepairs()) out.add(carsById.get(r.getCarId()));
+        return out;
     }
 
-    /** Επαναφόρτωση από τα αρχεία. */
-    public final void reloadAll() throws IOException {
-        store.ensureInitialized();
-        employees = store.loadEmployees();
-        cars = store.loadCars();
-        customers = store.loadCustomers();
-        rentals = store.loadRentals();
-        // Sync car statuses from rentals (in case files were edited):
-        Set<Integer> rentedCarIds = rentals.stream().filter(r -> !r.isReturned()).map(Rental::getCarId).collect(Collectors.toSet());
+    // caller holds the write lock; reads only the active-rental index, not the whole history
+    private ConsistencyReport repairStatuses(LocalDate today) {
+        Set<Integer> rentedCarIds = new HashSet<>();
+        for (Rental r : activeRentals.values()) {
+            if (!isReservation(r, today)) rentedCarIds.add(r.getCarId());
+        }
+        ConsistencyReport report = new ConsistencyReport();
         for (Car c : cars) {
-            c.setStatus(rentedCarIds.contains(c.getId()) ? CarStatus.RENTED : c.getStatus());
-            if (rentedCarIds.contains(c.getId())) c.setStatus(CarStatus.RENTED);
-            else if (c.getStatus() == CarStatus.RENTED && !rentedCarIds.contains(c.getId())) c.setStatus(CarStatus.AVAILABLE);
+            CarStatus expected = rentedCarIds.contains(c.getId()) ? CarStatus.RENTED : CarStatus.AVAILABLE;
+            if (c.getStatus() == expected) continue;
+            report.add(new ConsistencyReport.Repair(c.getId(), c.getStatus(), expected));
+            c.setStatus(expected);
         }
-        store.saveCars(cars);
+        return report;
     }
 
     // ---------------- Auth ----------------
@@ -55,14 +292,21 @@ public class CarRentalSystem {
      * @throws ValidationException αν τα credentials είναι λάθος
      */
     public Employee login(String username, String password) throws ValidationException {
+        Employee e = authenticate(username, password);
+        loggedIn = e;
+        return e;
+    }
+
+    /**
+     * Έλεγχος credentials χωρίς αλλαγή του συνδεδεμένου υπαλλήλου (π.χ. για συνεδρίες του server,
+     * που περνούν τον υπάλληλο ρητά στις μεθόδους με παράμετρο actor).
+     * @throws ValidationException αν τα credentials είναι λάθος
+     */
+    public Employee authenticate(String username, String password) throws ValidationException {
         if (username == null || username.trim().isEmpty()) throw new ValidationException("Συμπληρώστε username.");
         if (password == null || password.trim().isEmpty()) throw new ValidationException("Συμπληρώστε password.");
-        for (Employee e : employees) {
-            if (e.getUsername().equals(username) && e.getPassword().equals(password)) {
-                loggedIn = e;
-                return e;
-            }
-        }
+        Employee e = read(() -> employeesByUsername.get(username));
+        if (e != null && e.getPassword().equals(password)) return e;
         throw new ValidationException("Λάθος username ή password.");
     }
 
@@ -72,58 +316,137 @@ public class CarRentalSystem {
     /** Επιστρέφει τον συνδεδεμένο υπάλληλο ή null. */
     public Employee getLoggedIn() { return loggedIn; }
 
-    private void requireLogin() throws ValidationException {
-        if (loggedIn == null) throw new ValidationException("Απαιτείται σύνδεση (login).");
+    private Employee requireLogin() throws ValidationException {
+        return requireActor(loggedIn);
+    }
+
+    private static Employee requireActor(Employee actor) throws ValidationException {
+        if (actor == null) throw new ValidationException("Απαιτείται σύνδεση (login).");
+        return actor;
+    }
+
+    // ---------------- Change events ----------------
+
+    /** Εγγραφή για ειδοποιήσεις αλλαγών (π.χ. από ανοιχτές οθόνες του GUI). */
+    public void addChangeListener(DataChangeListener l) {
+        listeners.add(l);
+    }
+
+    public void removeChangeListener(DataChangeListener l) {
+        listeners.remove(l);
+    }
+
+    /**
+     * Αυξάνεται σε κάθε αλλαγή. Ένας αναγνώστης που κρατά στιγμιότυπα μπορεί να συγκρίνει την
+     * έκδοση για να αποφύγει ανανέωση όταν τίποτα δεν άλλαξε.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    private void publish(DataChangeEvent.Kind kind, Object subject) {
+        version.incrementAndGet();
+        if (listeners.isEmpty()) return;
+        DataChangeEvent e = new DataChangeEvent(kind, subject);
+        for (DataChangeListener l : listeners) {
+            try {
+                l.dataChanged(e);
+            } catch (RuntimeException ignored) {
+                // the change is already committed; a faulty view must not turn it into an error
+            }
+        }
     }
 
     // ---------------- Cars ----------------
 
-    public List<Car> getCars() { return new ArrayList<>(cars); }
+    /** Αμετάβλητο στιγμιότυπο όλων των αυτοκινήτων· O(1), χωρίς αντιγραφή. */
+    public List<Car> getCars() { return cars.snapshot(); }
 
     /**
-     * Αναζήτηση αυτοκινήτων με συνδυασμό κριτηρίων (όλα προαιρετικά).
+     * Αναζήτηση αυτοκινήτων με συνδυασμό κριτηρίων (όλα προαιρετικά, AND).
+     * Το ταίριασμα είναι substring χωρίς διάκριση πεζών/κεφαλαίων και τόνων, μέσω ευρετηρίου τριγράμμων.
      */
     public List<Car> searchCars(String brand, String plate, String model, String color, String type, CarStatus status) {
-        return cars.stream().filter(c -> {
-            if (brand != null && !brand.trim().isEmpty() && !containsIgnoreCase(c.getBrand(), brand)) return false;
-            if (plate != null && !plate.trim().isEmpty() && !containsIgnoreCase(c.getPlate(), plate)) return false;
-            if (model != null && !model.trim().isEmpty() && !containsIgnoreCase(c.getModel(), model)) return false;
-            if (color != null && !color.trim().isEmpty() && !containsIgnoreCase(c.getColor(), color)) return false;
-            if (type != null && !type.trim().isEmpty() && !containsIgnoreCase(c.getType(), type)) return false;
-            if (status != null && c.getStatus() != status) return false;
-            return true;
-        }).collect(Collectors.toList());
+        return readLocked(() -> carSearch.search(brand, plate, model, color, type, status));
+    }
+
+    /**
+     * Έως limit αυτοκίνητα με πινακίδα που περιέχει το κείμενο (πρώτα όσα ξεκινούν με αυτό),
+     * προαιρετικά μόνο σε μια κατάσταση. Για pickers: το κόστος φράσσεται από το όριο, όχι από τον στόλο.
+     */
+    public List<Car> searchCars(String plate, CarStatus status, int limit) {
+        return readLocked(() -> carSearch.searchPlate(plate, status, limit));
     }
 
     /**
      * Προσθήκη αυτοκινήτου.
      */
     public void addCar(Car car) throws ValidationException, IOException {
-        requireLogin();
-        validateCar(car, true);
-        cars.add(car);
-        store.saveCars(cars);
+        addCar(requireLogin(), car);
+    }
+
+    /** Όπως το {@link #addCar(Car)}, εκ μέρους του δοσμένου υπαλλήλου. */
+    public void addCar(Employee actor, Car car) throws ValidationException, IOException {
+        requireActor(actor);
+        validateCar(car);
+        long stamp = state.writeLock();
+        try {
+            checkCarUnique(car, true);
+            cars.add(car);
+            indexCar(car);
+            carSearch.add(car);
+        } finally {
+            state.unlockWrite(stamp);
+        }
+        persistCars(Collections.singletonList(car));
+        publish(DataChangeEvent.Kind.CAR_ADDED, car);
     }
 
     /**
      * Ενημέρωση αυτοκινήτου.
      */
     public void updateCar(Car car) throws ValidationException, IOException {
-        requireLogin();
-        validateCar(car, false);
-        Car existing = findCarById(car.getId());
-        if (existing == null) throw new ValidationException("Το αυτοκίνητο δεν βρέθηκε.");
-        existing.setPlate(car.getPlate());
-        existing.setBrand(car.getBrand());
-        existing.setType(car.getType());
-        existing.setModel(car.getModel());
-        existing.setYear(car.getYear());
-        existing.setColor(car.getColor());
-        existing.setStatus(car.getStatus());
-        store.saveCars(cars);
-    }
-
-    private void validateCar(Car car, boolean isNew) throws ValidationException {
+        updateCar(requireLogin(), car);
+    }
+
+    /** Όπως το {@link #updateCar(Car)}, εκ μέρους του δοσμένου υπαλλήλου. */
+    public void updateCar(Employee actor, Car car) throws ValidationException, IOException {
+        requireActor(actor);
+        validateCar(car);
+        ReentrantLock carLock = carLocks.forCar(car.getId());
+        carLock.lock();
+        try {
+            Car existing;
+            long stamp = state.writeLock();
+            try {
+                checkCarUnique(car, false);
+                existing = carsById.get(car.getId());
+                if (existing == null) throw new ValidationException("Το αυτοκίνητο δεν βρέθηκε.");
+                carsByPlate.remove(plateKey(existing.getPlate()), existing);
+                if (!typeKey(existing.getType()).equals(typeKey(car.getType()))) {
+                    carsByType.getOrDefault(typeKey(existing.getType()), new ArrayList<>()).remove(existing);
+                    carsByType.computeIfAbsent(typeKey(car.getType()), k -> new ArrayList<>()).add(existing);
+                }
+                existing.setPlate(car.getPlate());
+                existing.setBrand(car.getBrand());
+                existing.setType(car.getType());
+                existing.setModel(car.getModel());
+                existing.setYear(car.getYear());
+                existing.setColor(car.getColor());
+                existing.setStatus(car.getStatus());
+                carsByPlate.put(plateKey(existing.getPlate()), existing);
+                carSearch.update(existing);
+            } finally {
+                state.unlockWrite(stamp);
+            }
+            persistCars(Collections.singletonList(existing)); // nothing is written if no field changed
+            publish(DataChangeEvent.Kind.CAR_UPDATED, existing);
+        } finally {
+            carLock.unlock();
+        }
+    }
+
+    private void validateCar(Car car) throws ValidationException {
         if (car == null) throw new ValidationException("Κενό αυτοκίνητο.");
         if (car.getId() <= 0) throw new ValidationException("Το id πρέπει να είναι θετικός αριθμός.");
         if (isBlank(car.getPlate())) throw new ValidationException("Η πινακίδα είναι υποχρεωτική.");
@@ -131,63 +454,99 @@ public class CarRentalSystem {
         if (isBlank(car.getModel())) throw new ValidationException("Το μοντέλο είναι υποχρεωτικό.");
         if (isBlank(car.getType())) throw new ValidationException("Ο τύπος είναι υποχρεωτικός.");
         if (car.getYear() <= 0) throw new ValidationException("Το έτος πρέπει να είναι θετικό.");
+    }
 
-        // Unique: id & plate
-        for (Car c : cars) {
-            if (isNew) {
-                if (c.getId() == car.getId()) throw new ValidationException("Υπάρχει ήδη αυτοκίνητο με αυτό το id.");
-                if (c.getPlate().equalsIgnoreCase(car.getPlate())) throw new ValidationException("Υπάρχει ήδη αυτοκίνητο με αυτή την πινακίδα.");
-            } else {
-                if (c.getId() != car.getId() && c.getPlate().equalsIgnoreCase(car.getPlate())) {
-                    throw new ValidationException("Υπάρχει ήδη άλλο αυτοκίνητο με αυτή την πινακίδα.");
-                }
+    /** Μοναδικότητα id/πινακίδας· καλείται με κρατημένο το write lock. */
+    private void checkCarUnique(Car car, boolean isNew) throws ValidationException {
+        Car samePlate = carsByPlate.get(plateKey(car.getPlate()));
+        if (isNew) {
+            if (carsById.containsKey(car.getId())) throw new ValidationException("Υπάρχει ήδη αυτοκίνητο με αυτό το id.");
+            if (samePlate != null) throw new ValidationException("Υπάρχει ήδη αυτοκίνητο με αυτή την πινακίδα.");
+        } else {
+            if (samePlate != null && samePlate.getId() != car.getId()) {
+                throw new ValidationException("Υπάρχει ήδη άλλο αυτοκίνητο με αυτή την πινακίδα.");
             }
         }
     }
 
     public Car findCarById(int id) {
-        for (Car c : cars) if (c.getId() == id) return c;
-        return null;
+        return read(() -> carsById.get(id));
     }
 
     public Car findCarByPlate(String plate) {
         if (plate == null) return null;
-        for (Car c : cars) if (c.getPlate().equalsIgnoreCase(plate.trim())) return c;
-        return null;
+        String key = plateKey(plate);
+        return read(() -> carsByPlate.get(key));
     }
 
     // ---------------- Customers ----------------
 
-    public List<Customer> getCustomers() { return new ArrayList<>(customers); }
+    /** Αμετάβλητο στιγμιότυπο όλων των πελατών· O(1), χωρίς αντιγραφή. */
+    public List<Customer> getCustomers() { return customers.snapshot(); }
 
+    /**
+     * Αναζήτηση πελατών (όλα τα κριτήρια προαιρετικά, AND), με τη σειρά καταχώρησης.
+     * Το όνομα ταιριάζει χωρίς τόνους ως substring ή ως prefix λέξεων· ΑΦΜ/τηλέφωνο συγκρίνονται μόνο στα ψηφία.
+     */
     public List<Customer> searchCustomers(String afm, String name, String phone) {
-        return customers.stream().filter(c -> {
-            if (afm != null && !afm.trim().isEmpty() && !containsIgnoreCase(c.getAfm(), afm)) return false;
-            if (name != null && !name.trim().isEmpty() && !containsIgnoreCase(c.getFullName(), name)) return false;
-            if (phone != null && !phone.trim().isEmpty() && !containsIgnoreCase(c.getPhone(), phone)) return false;
-            return true;
-        }).collect(Collectors.toList());
+        return readLocked(() -> customerSearch.search(afm, name, phone));
+    }
+
+    /**
+     * Όπως το {@link #searchCustomers(String, String, String)}, αλλά επιστρέφει μόνο τους limit
+     * καλύτερους, ταξινομημένους κατά συνάφεια (ακριβές ΑΦΜ/τηλέφωνο πρώτα).
+     */
+    public List<Customer> searchCustomers(String afm, String name, String phone, int limit) {
+        return readLocked(() -> customerSearch.search(afm, name, phone, limit));
     }
 
     public void addCustomer(Customer c) throws ValidationException, IOException {
-        requireLogin();
-        validateCustomer(c, true);
-        customers.add(c);
-        store.saveCustomers(customers);
+        addCustomer(requireLogin(), c);
+    }
+
+    /** Όπως το {@link #addCustomer(Customer)}, εκ μέρους του δοσμένου υπαλλήλου. */
+    public void addCustomer(Employee actor, Customer c) throws ValidationException, IOException {
+        requireActor(actor);
+        validateCustomer(c);
+        long stamp = state.writeLock();
+        try {
+            // AFM is key, not editable in update in our flow
+            if (customersByAfm.containsKey(c.getAfm())) throw new ValidationException("Υπάρχει ήδη πελάτης με αυτό το ΑΦΜ.");
+            customers.add(c);
+            customersByAfm.putIfAbsent(c.getAfm(), c);
+            customerSearch.add(c);
+        } finally {
+            state.unlockWrite(stamp);
+        }
+        persistCustomers(Collections.singletonList(c));
+        publish(DataChangeEvent.Kind.CUSTOMER_ADDED, c);
     }
 
     public void updateCustomer(Customer c) throws ValidationException, IOException {
-        requireLogin();
-        validateCustomer(c, false);
-        Customer existing = findCustomerByAfm(c.getAfm());
-        if (existing == null) throw new ValidationException("Ο πελάτης δεν βρέθηκε.");
-        existing.setFullName(c.getFullName());
-        existing.setPhone(c.getPhone());
-        existing.setEmail(c.getEmail());
-        store.saveCustomers(customers);
+        updateCustomer(requireLogin(), c);
+    }
+
+    /** Όπως το {@link #updateCustomer(Customer)}, εκ μέρους του δοσμένου υπαλλήλου. */
+    public void updateCustomer(Employee actor, Customer c) throws ValidationException, IOException {
+        requireActor(actor);
+        validateCustomer(c);
+        Customer existing;
+        long stamp = state.writeLock();
+        try {
+            existing = customersByAfm.get(c.getAfm().trim());
+            if (existing == null) throw new ValidationException("Ο πελάτης δεν βρέθηκε.");
+            existing.setFullName(c.getFullName());
+            existing.setPhone(c.getPhone());
+            existing.setEmail(c.getEmail());
+            customerSearch.update(existing);
+        } finally {
+            state.unlockWrite(stamp);
+        }
+        persistCustomers(Collections.singletonList(existing));
+        publish(DataChangeEvent.Kind.CUSTOMER_UPDATED, existing);
     }
 
-    private void validateCustomer(Customer c, boolean isNew) throws ValidationException {
+    private void validateCustomer(Customer c) throws ValidationException {
         if (c == null) throw new ValidationException("Κενός πελάτης.");
         if (isBlank(c.getAfm())) throw new ValidationException("Το ΑΦΜ είναι υποχρεωτικό.");
         if (!c.getAfm().matches("\\d{9}")) throw new ValidationException("Το ΑΦΜ πρέπει να έχει 9 ψηφία.");
@@ -195,137 +554,804 @@ public class CarRentalSystem {
         if (isBlank(c.getPhone())) throw new ValidationException("Το τηλέφωνο είναι υποχρεωτικό.");
         if (isBlank(c.getEmail())) throw new ValidationException("Το email είναι υποχρεωτικό.");
         if (!c.getEmail().contains("@")) throw new ValidationException("Μη έγκυρο email.");
-
-        for (Customer x : customers) {
-            if (isNew) {
-                if (x.getAfm().equals(c.getAfm())) throw new ValidationException("Υπάρχει ήδη πελάτης με αυτό το ΑΦΜ.");
-            } else {
-                // AFM is key, not editable in update in our flow
-            }
-        }
     }
 
     public Customer findCustomerByAfm(String afm) {
         if (afm == null) return null;
-        for (Customer c : customers) if (c.getAfm().equals(afm.trim())) return c;
-        return null;
+        String key = afm.trim();
+        return read(() -> customersByAfm.get(key));
     }
 
     // ---------------- Employees ----------------
 
-    public List<Employee> getEmployees() { return new ArrayList<>(employees); }
+    /** Αμετάβλητο στιγμιότυπο όλων των υπαλλήλων· O(1), χωρίς αντιγραφή. */
+    public List<Employee> getEmployees() { return employees.snapshot(); }
 
     public void addEmployee(Employee e) throws ValidationException, IOException {
-        requireLogin();
-        validateEmployee(e, true);
-        employees.add(e);
-        store.saveEmployees(employees);
+        addEmployee(requireLogin(), e);
+    }
+
+    /** Όπως το {@link #addEmployee(Employee)}, εκ μέρους του δοσμένου υπαλλήλου. */
+    public void addEmployee(Employee actor, Employee e) throws ValidationException, IOException {
+        requireActor(actor);
+        validateEmployee(e);
+        long stamp = state.writeLock();
+        try {
+            if (employeesByUsernameKey.containsKey(caseKey(e.getUsername()))) throw new ValidationException("Υπάρχει ήδη χρήστης με αυτό το username.");
+            if (employeesByEmailKey.containsKey(caseKey(e.getEmail()))) throw new ValidationException("Υπάρχει ήδη χρήστης με αυτό το email.");
+            employees.add(e);
+            indexEmployee(e);
+        } finally {
+            state.unlockWrite(stamp);
+        }
+        persistEmployees(Collections.singletonList(e), Collections.<String>emptyList());
+        publish(DataChangeEvent.Kind.EMPLOYEE_ADDED, e);
     }
 
     public void deleteEmployee(String username) throws ValidationException, IOException {
-        requireLogin();
+        deleteEmployee(requireLogin(), username);
+    }
+
+    /** Όπως το {@link #deleteEmployee(String)}· ο actor δεν μπορεί να διαγράψει τον εαυτό του. */
+    public void deleteEmployee(Employee actor, String username) throws ValidationException, IOException {
+        Employee self = requireActor(actor);
         if (isBlank(username)) throw new ValidationException("Κενό username.");
-        if (loggedIn != null && loggedIn.getUsername().equals(username)) {
+        if (self.getUsername().equals(username)) {
             throw new ValidationException("Δεν μπορείτε να διαγράψετε τον εαυτό σας όσο είστε συνδεδεμένος.");
         }
-        boolean removed = employees.removeIf(u -> u.getUsername().equals(username));
-        if (!removed) throw new ValidationException("Ο χρήστης δεν βρέθηκε.");
-        store.saveEmployees(employees);
+        List<Employee> removed = new ArrayList<>(1);
+        long stamp = state.writeLock();
+        try {
+            for (Employee u : employees) if (u.getUsername().equals(username)) removed.add(u);
+            if (removed.isEmpty()) throw new ValidationException("Ο χρήστης δεν βρέθηκε.");
+            employees.removeAll(removed);
+            rebuildEmployeeIndexes();
+        } finally {
+            state.unlockWrite(stamp);
+        }
+        List<String> usernames = new ArrayList<>(removed.size());
+        for (Employee u : removed) usernames.add(u.getUsername());
+        persistEmployees(Collections.<Employee>emptyList(), usernames);
+        for (Employee u : removed) publish(DataChangeEvent.Kind.EMPLOYEE_REMOVED, u);
     }
 
-    private void validateEmployee(Employee e, boolean isNew) throws ValidationException {
+    private void validateEmployee(Employee e) throws ValidationException {
         if (e == null) throw new ValidationException("Κενός χρήστης.");
         if (isBlank(e.getFullName())) throw new ValidationException("Το ονοματεπώνυμο είναι υποχρεωτικό.");
         if (isBlank(e.getUsername())) throw new ValidationException("Το username είναι υποχρεωτικό.");
         if (isBlank(e.getEmail())) throw new ValidationException("Το email είναι υποχρεωτικό.");
         if (isBlank(e.getPassword())) throw new ValidationException("Το password είναι υποχρεωτικό.");
         if (!e.getEmail().contains("@")) throw new ValidationException("Μη έγκυρο email.");
+    }
 
-        for (Employee x : employees) {
-            if (isNew) {
-                if (x.getUsername().equalsIgnoreCase(e.getUsername())) throw new ValidationException("Υπάρχει ήδη χρήστης με αυτό το username.");
-                if (x.getEmail().equalsIgnoreCase(e.getEmail())) throw new ValidationException("Υπάρχει ήδη χρήστης με αυτό το email.");
-            }
+    // ---------------- Rentals ----------------
+
+    /**
+     * Αμετάβλητο στιγμιότυπο των ενοικιάσεων στη μνήμη (ενεργές και πρόσφατες)· O(1), χωρίς αντιγραφή.
+     * Το παλαιότερο ιστορικό επιστρέφουν τα {@link #getRentalsForCustomer(String)},
+     * {@link #getRentalsForCar(int)} και {@link #getRentalsBetween(LocalDate, LocalDate)}.
+     */
+    public List<Rental> getRentals() { return rentals.snapshot(); }
+
+    /** Όλο το ιστορικό του πελάτη: πρώτα οι αρχειοθετημένες ενοικιάσεις (από τον δίσκο), μετά όσες είναι στη μνήμη. */
+    public List<Rental> getRentalsForCustomer(String afm) throws IOException {
+        List<Rental> hot = read(() -> snapshotOf(rentalsByCustomer.get(afm)));
+        return withArchived(hot, store.loadArchivedRentalsForCustomer(afm));
+    }
+
+    /** Όλο το ιστορικό του αυτοκινήτου, όπως το {@link #getRentalsForCustomer(String)}. */
+    public List<Rental> getRentalsForCar(int carId) throws IOException {
+        List<Rental> hot = read(() -> snapshotOf(rentalsByCar.get(carId)));
+        return withArchived(hot, store.loadArchivedRentalsForCar(carId));
+    }
+
+    /**
+     * Ενοικιάσεις (και αρχειοθετημένες) που επικαλύπτουν το [from, to], κατά ημερομηνία έναρξης.
+     * Από το αρχείο διαβάζονται μόνο οι μήνες που μπορεί να περιέχουν τέτοιες ενοικιάσεις.
+     */
+    public List<Rental> getRentalsBetween(LocalDate from, LocalDate to) throws ValidationException, IOException {
+        if (from == null || to == null) throw new ValidationException("Συμπληρώστε ημερομηνίες.");
+        if (to.isBefore(from)) throw new ValidationException("Η ημερομηνία λήξης δεν μπορεί να είναι πριν την έναρξη.");
+        Predicate<Rental> overlaps = r -> !r.getStartDate().isAfter(to) && !r.getEndDate().isBefore(from);
+        // everything starting on or before 'to', via the start-ordered index
+        Rental last = new Rental(Long.MAX_VALUE, 0, null, null, to, to, false, null);
+        List<Rental> hot = new ArrayList<>();
+        for (Rental r : rentalsSorted.get(RentalQuery.SortKey.START).headSet(last, true)) {
+            if (overlaps.test(r)) hot.add(r);
         }
+        List<Rental> out = new ArrayList<>(withArchived(hot, store.loadArchivedRentals(from, to, overlaps)));
+        out.sort(RentalQuery.SortKey.START.order());
+        return out;
     }
 
-    // ---------------- Rentals ----------------
+    // after a crash in the middle of archiving a rental can be in both places; the in-memory copy wins
+    private static List<Rental> withArchived(List<Rental> hot, List<Rental> archived) {
+        if (archived.isEmpty()) return hot;
+        Set<Long> hotIds = new HashSet<>();
+        for (Rental r : hot) hotIds.add(r.getRentalId());
+        List<Rental> out = new ArrayList<>(archived.size() + hot.size());
+        for (Rental r : archived) {
+            if (!hotIds.contains(r.getRentalId())) out.add(r);
+        }
+        out.addAll(hot);
+        return Collections.unmodifiableList(out);
+    }
 
-    public List<Rental> getRentals() { return new ArrayList<>(rentals); }
+    /**
+     * Ενοικιάσεις στη μνήμη με ΑΦΜ που περιέχει το {@code afm} και πινακίδα που περιέχει το {@code plate}
+     * (και τα δύο προαιρετικά), ταξινομημένες κατά rentalId.
+     * Η πινακίδα λύνεται μία φορά μέσω του ευρετηρίου αυτοκινήτων και διαβάζεται μόνο το ιστορικό
+     * των αυτοκινήτων (ή των πελατών) που ταιριάζουν, όχι όλες οι ενοικιάσεις.
+     */
+    public List<Rental> searchRentals(String afm, String plate) {
+        String afmPart = isBlank(afm) ? null : afm.trim();
+        if (afmPart == null && isBlank(plate)) return getRentals();
+        return readLocked(() -> {
+            List<Rental> out = new ArrayList<>();
+            if (!isBlank(plate)) {
+                Set<Integer> carIds = new HashSet<>();
+                int hits = 0;
+                for (Car c : carSearch.search(null, plate, null, null, null, null)) {
+                    carIds.add(c.getId());
+                    hits += sizeOf(rentalsByCar.get(c.getId()));
+                }
+                if (hits > rentals.size() / 8) {
+                    // as for a short afm below: one pass instead of gathering and re-sorting every car's rentals
+                    for (Rental r : rentals.snapshot()) {
+                        if (carIds.contains(r.getCarId()) && (afmPart == null || r.getCustomerAfm().contains(afmPart))) out.add(r);
+                    }
+                } else {
+                    for (Integer id : carIds) {
+                        for (Rental r : snapshotOf(rentalsByCar.get(id))) {
+                            if (afmPart == null || r.getCustomerAfm().contains(afmPart)) out.add(r);
+                        }
+                    }
+                }
+            } else {
+                Set<String> afms = new HashSet<>();
+                int hits = 0;
+                for (Map.Entry<String, AppendOnlyList<Rental>> e : rentalsByCustomer.entrySet()) {
+                    if (!e.getKey().contains(afmPart)) continue;
+                    afms.add(e.getKey());
+                    hits += e.getValue().size();
+                }
+                if (hits > rentals.size() / 8) {
+                    // a short prefix matches most customers: one pass over the (nearly id-ordered) list is cheaper
+                    for (Rental r : rentals.snapshot()) if (afms.contains(r.getCustomerAfm())) out.add(r);
+                } else {
+                    for (String key : afms) out.addAll(rentalsByCustomer.get(key).snapshot());
+                }
+            }
+            out.sort(RentalQuery.SortKey.ID.order());
+            return out;
+        });
+    }
 
-    public List<Rental> getRentalsForCustomer(String afm) {
-        return rentals.stream().filter(r -> r.getCustomerAfm().equals(afm)).collect(Collectors.toList());
+    private static <T> List<T> snapshotOf(AppendOnlyList<T> list) {
+        return list == null ? Collections.<T>emptyList() : list.snapshot();
     }
 
-    public List<Rental> getRentalsForCar(int carId) {
-        return rentals.stream().filter(r -> r.getCarId() == carId).collect(Collectors.toList());
+    private static int sizeOf(AppendOnlyList<?> list) {
+        return list == null ? 0 : list.size();
     }
 
     public List<Rental> getActiveRentals() {
-        return rentals.stream().filter(r -> !r.isReturned()).collect(Collectors.toList());
+        return readLocked(() -> new ArrayList<>(activeRentals.values()));
+    }
+
+    /**
+     * Μία σελίδα ιστορικού ενοικιάσεων, ταξινομημένη κατά id, έναρξη ή λήξη.
+     * Η συνέχεια βασίζεται στο κλειδί της τελευταίας γραμμής (keyset), οπότε η σελίδα N κοστίζει
+     * O(log n + μέγεθος σελίδας) και οι σελίδες δεν μετατοπίζονται όταν προστίθενται νέες ενοικιάσεις.
+     * Με φίλτρο πελάτη, αυτοκινήτου ή ενεργών διαβάζεται μόνο το αντίστοιχο (μικρό) υποσύνολο·
+     * το ιστορικό πελάτη ή αυτοκινήτου περιλαμβάνει και το αρχείο, ενώ χωρίς φίλτρο οι σελίδες
+     * καλύπτουν τις ενοικιάσεις στη μνήμη.
+     * @throws ValidationException για άκυρο μέγεθος σελίδας ή token που δεν αντιστοιχεί στο query
+     */
+    public RentalPage queryRentals(RentalQuery q) throws ValidationException, IOException {
+        if (q.getPageSize() <= 0 || q.getPageSize() > RentalQuery.MAX_PAGE_SIZE) {
+            throw new ValidationException("Το μέγεθος σελίδας πρέπει να είναι από 1 έως " + RentalQuery.MAX_PAGE_SIZE + ".");
+        }
+        RentalQuery.SortKey key = q.getSortKey();
+        Rental after = q.getPageToken() == null ? null : decodePageToken(q.getPageToken(), key, q.isDescending());
+        String afm = isBlank(q.getCustomerAfm()) ? null : q.getCustomerAfm().trim();
+        Integer carId = q.getCarId();
+
+        NavigableSet<Rental> source;
+        if (afm == null && carId == null && !q.isActiveOnly()) {
+            source = rentalsSorted.get(key);
+        } else {
+            // the narrowest candidate list, ordered for this page; archived rentals are never active
+            List<Rental> candidates;
+            candidates = readLocked(() -> {
+                if (carId != null) return snapshotOf(rentalsByCar.get(carId));
+                if (afm != null) return snapshotOf(rentalsByCustomer.get(afm));
+                return new ArrayList<>(activeRentals.values());
+            });
+            if (!q.isActiveOnly()) {
+                ArchiveBounds bounds = carId != null ? store.archivedBoundsForCar(carId) : store.archivedBoundsForCustomer(afm);
+                if (bounds != null && !pastArchive(after, bounds, key, q.isDescending())) {
+                    candidates = withArchived(candidates, carId != null
+                            ? store.loadArchivedRentalsForCar(carId) : store.loadArchivedRentalsForCustomer(afm));
+                }
+            }
+            source = new TreeSet<>(key.order());
+            for (Rental r : candidates) {
+                if (afm != null && !afm.equals(r.getCustomerAfm())) continue;
+                if (carId != null && r.getCarId() != carId) continue;
+                if (q.isActiveOnly() && r.isReturned()) continue;
+                source.add(r);
+            }
+        }
+        if (q.isDescending()) source = source.descendingSet();
+        if (after != null) source = source.tailSet(after, false);
+
+        List<Rental> page = new ArrayList<>(q.getPageSize());
+        boolean more = false;
+        for (Rental r : source) {
+            if (page.size() == q.getPageSize()) {
+                more = true;
+                break;
+            }
+            page.add(r);
+        }
+        String next = more ? encodePageToken(page.get(page.size() - 1), key, q.isDescending()) : null;
+        return new RentalPage(page, next);
+    }
+
+    /**
+     * Αν η σελίδα μετά το {@code after} δεν μπορεί να περιέχει αρχειοθετημένες ενοικιάσεις:
+     * το token ήδη κρατά την τιμή ταξινόμησης, οπότε αρκεί σύγκριση με τα όρια του αρχείου.
+     */
+    private static boolean pastArchive(Rental after, ArchiveBounds bounds, RentalQuery.SortKey key, boolean descending) {
+        if (after == null) return false;
+        switch (key) {
+            case START:
+                return descending ? after.getStartDate().isBefore(bounds.getFirstStart())
+                        : after.getStartDate().isAfter(bounds.getLastStart());
+            case END:
+                // an archived rental never ends before it starts
+                return descending ? after.getEndDate().isBefore(bounds.getFirstStart())
+                        : after.getEndDate().isAfter(bounds.getLastEnd());
+            default:
+                return descending ? after.getRentalId() <= bounds.getMinRentalId()
+                        : after.getRentalId() >= bounds.getMaxRentalId();
+        }
+    }
+
+    // token: <sort key>:<asc|desc>:<sort value>:<rentalId>
+    private static String encodePageToken(Rental last, RentalQuery.SortKey key, boolean descending) {
+        long value;
+        switch (key) {
+            case START: value = last.getStartDate().toEpochDay(); break;
+            case END: value = last.getEndDate().toEpochDay(); break;
+            default: value = last.getRentalId(); break;
+        }
+        return key.name() + ":" + (descending ? "desc" : "asc") + ":" + value + ":" + last.getRentalId();
+    }
+
+    /** Επιστρέφει μια «ψεύτικη» ενοικίαση με τα πεδία ταξινόμησης της τελευταίας γραμμής. */
+    private static Rental decodePageToken(String token, RentalQuery.SortKey key, boolean descending) throws ValidationException {
+        String[] parts = token.split(":");
+        if (parts.length != 4 || !parts[0].equals(key.name()) || !parts[1].equals(descending ? "desc" : "asc")) {
+            throw new ValidationException("Το token σελίδας δεν αντιστοιχεί σε αυτή την αναζήτηση.");
+        }
+        try {
+            long value = Long.parseLong(parts[2]);
+            long rentalId = Long.parseLong(parts[3]);
+            LocalDate date = key == RentalQuery.SortKey.ID ? null : LocalDate.ofEpochDay(value);
+            return new Rental(rentalId, 0, null, null, date, date, false, null);
+        } catch (RuntimeException e) {
+            throw new ValidationException("Μη έγκυρο token σελίδας.");
+        }
     }
 
     /**
      * Δημιουργία νέας ενοικίασης με έλεγχο διαθεσιμότητας.
+     * Αν η έναρξη είναι μελλοντική, καταχωρείται κράτηση: το αυτοκίνητο μένει διαθέσιμο
+     * μέχρι τότε, αλλά δεν μπορεί να δοθεί σε επικαλυπτόμενο διάστημα.
      */
     public Rental rentCar(int carId, String customerAfm, LocalDate start, LocalDate end) throws ValidationException, IOException {
-        requireLogin();
+        return rentCar(requireLogin(), carId, customerAfm, start, end);
+    }
+
+    /** Όπως το {@link #rentCar(int, String, LocalDate, LocalDate)}· η ενοικίαση καταγράφεται στον actor. */
+    public Rental rentCar(Employee actor, int carId, String customerAfm, LocalDate start, LocalDate end) throws ValidationException, IOException {
+        requireActor(actor);
         if (start == null || end == null) throw new ValidationException("Συμπληρώστε ημερομηνίες.");
         if (end.isBefore(start)) throw new ValidationException("Η ημερομηνία λήξης δεν μπορεί να είναι πριν την έναρξη.");
-        Car car = findCarById(carId);
-        if (car == null) throw new ValidationException("Το αυτοκίνητο δεν βρέθηκε.");
-        if (car.getStatus() != CarStatus.AVAILABLE) throw new ValidationException("Το αυτοκίνητο δεν είναι διαθέσιμο.");
         Customer customer = findCustomerByAfm(customerAfm);
         if (customer == null) throw new ValidationException("Ο πελάτης δεν βρέθηκε.");
 
-        long rentalId = nextRentalId();
-        Rental r = new Rental(rentalId, carId, customerAfm, loggedIn.getUsername(), start, end, false, null);
-        rentals.add(r);
-        car.setStatus(CarStatus.RENTED);
+        ReentrantLock carLock = carLocks.forCar(carId);
+        carLock.lock();
+        try {
+            // the car's status and bookings cannot change while its stripe is held
+            Car car = findCarById(carId);
+            if (car == null) throw new ValidationException("Το αυτοκίνητο δεν βρέθηκε.");
+            LocalDate today = LocalDate.now();
+            boolean reservation = start.isAfter(today);
+            if (!reservation && car.getStatus() != CarStatus.AVAILABLE) throw new ValidationException("Το αυτοκίνητο δεν είναι διαθέσιμο.");
+            Rental clash = readLocked(() -> bookings.findOverlap(carId, start, end, today));
+            if (clash != null) {
+                throw new ValidationException("Το αυτοκίνητο είναι κρατημένο από " + clash.getStartDate() + " έως " + clash.getEndDate() + ".");
+            }
+
+            long rentalId = rentalIds.next();
+            Rental r = new Rental(rentalId, carId, customerAfm, actor.getUsername(), start, end, false, null);
+            long stamp = state.writeLock();
+            try {
+                rentals.add(r);
+                indexRental(r);
+                if (!reservation) car.setStatus(CarStatus.RENTED);
+            } finally {
+                state.unlockWrite(stamp);
+            }
+
+            // still under the stripe, so a later RETURN of this rental is always journaled after its RENT
+            store.appendRental(r);
+            compactRentalsIfNeeded();
+            if (!reservation) persistCars(Collections.singletonList(car));
+            publish(DataChangeEvent.Kind.RENTAL_CREATED, r);
+            if (!reservation) publish(DataChangeEvent.Kind.CAR_UPDATED, car);
+            return r;
+        } finally {
+            carLock.unlock();
+        }
+    }
 
-        store.saveRentals(rentals);
-        store.saveCars(cars);
-        return r;
+    /**
+     * Αυτοκίνητα του τύπου (κενό = όλοι οι τύποι) χωρίς ενοικίαση ή κράτηση που να επικαλύπτει το [from, to].
+     */
+    public List<Car> findAvailableCars(String type, LocalDate from, LocalDate to) throws ValidationException {
+        if (from == null || to == null) throw new ValidationException("Συμπληρώστε ημερομηνίες.");
+        if (to.isBefore(from)) throw new ValidationException("Η ημερομηνία λήξης δεν μπορεί να είναι πριν την έναρξη.");
+        LocalDate today = LocalDate.now();
+        return readLocked(() -> {
+            List<Car> pool = isBlank(type) ? cars : carsByType.getOrDefault(TextFold.fold(type.trim()), Collections.emptyList());
+            List<Car> out = new ArrayList<>();
+            for (Car c : pool) {
+                // a car marked rented without a rental record cannot be promised for today
+                if (!from.isAfter(today) && c.getStatus() != CarStatus.AVAILABLE) continue;
+                if (bookings.findOverlap(c.getId(), from, to, today) == null) out.add(c);
+            }
+            return out;
+        });
     }
 
     /**
-     * Επιστροφή ενοικιασμένου οχήματος.
+     * Επιστροφή ενοικιασμένου οχήματος ή ακύρωση κράτησης που δεν έχει ξεκινήσει.
      */
     public void returnRental(long rentalId) throws ValidationException, IOException {
-        requireLogin();
+        returnRental(requireLogin(), rentalId);
+    }
+
+    /** Όπως το {@link #returnRental(long)}, εκ μέρους του δοσμένου υπαλλήλου. */
+    public void returnRental(Employee actor, long rentalId) throws ValidationException, IOException {
+        requireActor(actor);
         Rental r = findRentalById(rentalId);
         if (r == null) throw new ValidationException("Η ενοικίαση δεν βρέθηκε.");
-        if (r.isReturned()) throw new ValidationException("Η ενοικίαση είναι ήδη ολοκληρωμένη.");
-        Car car = findCarById(r.getCarId());
-        if (car == null) throw new ValidationException("Το αυτοκίνητο δεν βρέθηκε (ασυνέπεια δεδομένων).");
+        ReentrantLock carLock = carLocks.forCar(r.getCarId());
+        carLock.lock();
+        try {
+            if (r.isReturned()) throw new ValidationException("Η ενοικίαση είναι ήδη ολοκληρωμένη.");
+            Car car = findCarById(r.getCarId());
+            if (car == null) throw new ValidationException("Το αυτοκίνητο δεν βρέθηκε (ασυνέπεια δεδομένων).");
 
-        r.markReturned(LocalDate.now());
-        car.setStatus(CarStatus.AVAILABLE);
+            LocalDate today = LocalDate.now();
+            boolean reservation = isReservation(r, today);
+            long stamp = state.writeLock();
+            try {
+                bookings.remove(r);
+                r.markReturned(today);
+                activeRentals.remove(r.getRentalId());
+                if (!reservation) car.setStatus(CarStatus.AVAILABLE);
+            } finally {
+                state.unlockWrite(stamp);
+            }
 
-        store.saveRentals(rentals);
-        store.saveCars(cars);
+            store.appendReturn(r);
+            compactRentalsIfNeeded();
+            if (!reservation) persistCars(Collections.singletonList(car));
+            publish(DataChangeEvent.Kind.RENTAL_RETURNED, r);
+            if (!reservation) publish(DataChangeEvent.Kind.CAR_UPDATED, car);
+        } finally {
+            carLock.unlock();
+        }
     }
 
-    public Rental findRentalById(long rentalId) {
-        for (Rental r : rentals) if (r.getRentalId() == rentalId) return r;
-        return null;
+    /**
+     * Ενοικίαση πολλών αυτοκινήτων μαζί (π.χ. εταιρικός πελάτης). Όλα τα αιτήματα ελέγχονται
+     * πριν από οποιαδήποτε αλλαγή: αν ένα αποτύχει δεν καταχωρείται κανένα. Η αποθήκευση
+     * γίνεται μία φορά για όλο το batch (ένα append στο journal, μία εγγραφή αυτοκινήτων).
+     * @return οι ενοικιάσεις, με τη σειρά των αιτημάτων
+     */
+    public List<Rental> rentCars(List<RentalRequest> requests) throws ValidationException, IOException {
+        return rentCars(requireLogin(), requests);
     }
 
-    private long nextRentalId() throws IOException {
-        Properties p = store.loadMeta();
-        long next = Long.parseLong(p.getProperty("nextRentalId", "1"));
-        p.setProperty("nextRentalId", String.valueOf(next + 1));
-        store.saveMeta(p);
-        return next;
+    /** Όπως το {@link #rentCars(List)}· οι ενοικιάσεις καταγράφονται στον actor. */
+    public List<Rental> rentCars(Employee actor, List<RentalRequest> requests) throws ValidationException, IOException {
+        requireActor(actor);
+        if (requests == null || requests.isEmpty()) return new ArrayList<>();
+        int[] carIds = new int[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            RentalRequest q = requests.get(i);
+            if (q == null) throw batchError(i, "Κενό αίτημα.");
+            if (q.getStartDate() == null || q.getEndDate() == null) throw batchError(i, "Συμπληρώστε ημερομηνίες.");
+            if (q.getEndDate().isBefore(q.getStartDate())) throw batchError(i, "Η ημερομηνία λήξης δεν μπορεί να είναι πριν την έναρξη.");
+            if (findCustomerByAfm(q.getCustomerAfm()) == null) throw batchError(i, "Ο πελάτης δεν βρέθηκε.");
+            carIds[i] = q.getCarId();
+        }
+
+        int[] stripes = carLocks.lockCars(carIds);
+        try {
+            LocalDate today = LocalDate.now();
+            List<Car> targets = new ArrayList<>(requests.size());
+            Map<Integer, List<RentalRequest>> batchByCar = new HashMap<>();
+            for (int i = 0; i < requests.size(); i++) {
+                RentalRequest q = requests.get(i);
+                Car car = findCarById(q.getCarId());
+                if (car == null) throw batchError(i, "Το αυτοκίνητο δεν βρέθηκε.");
+                if (!q.getStartDate().isAfter(today) && car.getStatus() != CarStatus.AVAILABLE) {
+                    throw batchError(i, "Το αυτοκίνητο " + car.getPlate() + " δεν είναι διαθέσιμο.");
+                }
+                Rental clash = readLocked(() -> bookings.findOverlap(q.getCarId(), q.getStartDate(), q.getEndDate(), today));
+                if (clash != null) {
+                    throw batchError(i, "Το αυτοκίνητο " + car.getPlate() + " είναι κρατημένο από " + clash.getStartDate() + " έως " + clash.getEndDate() + ".");
+                }
+                List<RentalRequest> sameCar = batchByCar.computeIfAbsent(q.getCarId(), k -> new ArrayList<>());
+                for (RentalRequest other : sameCar) {
+                    if (overlaps(q, other, today)) throw batchError(i, "Επικαλύπτεται με άλλο αίτημα για το αυτοκίνητο " + car.getPlate() + ".");
+                }
+                sameCar.add(q);
+                targets.add(car);
+            }
+
+            long firstId = rentalIds.next(requests.size());
+            List<Rental> created = new ArrayList<>(requests.size());
+            boolean carsChanged = false;
+            long stamp = state.writeLock();
+            try {
+                for (int i = 0; i < requests.size(); i++) {
+                    RentalRequest q = requests.get(i);
+                    Rental r = new Rental(firstId + i, q.getCarId(), q.getCustomerAfm(), actor.getUsername(),
+                            q.getStartDate(), q.getEndDate(), false, null);
+                    rentals.add(r);
+                    indexRental(r);
+                    if (!q.getStartDate().isAfter(today)) {
+                        targets.get(i).setStatus(CarStatus.RENTED);
+                        carsChanged = true;
+                    }
+                    created.add(r);
+                }
+            } finally {
+                state.unlockWrite(stamp);
+            }
+
+            store.appendRentals(created);
+            compactRentalsIfNeeded();
+            if (carsChanged) persistCars(targets);
+            for (int i = 0; i < created.size(); i++) {
+                publish(DataChangeEvent.Kind.RENTAL_CREATED, created.get(i));
+                if (!created.get(i).getStartDate().isAfter(today)) publish(DataChangeEvent.Kind.CAR_UPDATED, targets.get(i));
+            }
+            return created;
+        } finally {
+            carLocks.unlock(stripes);
+        }
     }
 
-    // ---------------- Helpers ----------------
+    /**
+     * Επιστροφή (ή ακύρωση κράτησης) πολλών ενοικιάσεων μαζί, π.χ. στο κλείσιμο της ημέρας.
+     * Όπως στο {@link #rentCars(List)}: όλα ή τίποτα, μία αποθήκευση.
+     */
+    public void returnRentals(List<Long> rentalIds) throws ValidationException, IOException {
+        returnRentals(requireLogin(), rentalIds);
+    }
+
+    /** Όπως το {@link #returnRentals(List)}, εκ μέρους του δοσμένου υπαλλήλου. */
+    public void returnRentals(Employee actor, List<Long> ids) throws ValidationException, IOException {
+        requireActor(actor);
+        if (ids == null || ids.isEmpty()) return;
+        List<Rental> targets = new ArrayList<>(ids.size());
+        Set<Long> seen = new HashSet<>();
+        int[] carIds = new int[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) throw batchError(i, "Κενός κωδικός ενοικίασης.");
+            if (!seen.add(id)) throw batchError(i, "Η ενοικίαση " + id + " υπάρχει δύο φορές.");
+            Rental r = findRentalById(id);
+            if (r == null) throw batchError(i, "Η ενοικίαση " + id + " δεν βρέθηκε.");
+            targets.add(r);
+            carIds[i] = r.getCarId();
+        }
+
+        int[] stripes = carLocks.lockCars(carIds);
+        try {
+            List<Car> targetCars = new ArrayList<>(targets.size());
+            for (int i = 0; i < targets.size(); i++) {
+                Rental r = targets.get(i);
+                if (r.isReturned()) throw batchError(i, "Η ενοικίαση " + r.getRentalId() + " είναι ήδη ολοκληρωμένη.");
+                Car car = findCarById(r.getCarId());
+                if (car == null) throw batchError(i, "Το αυτοκίνητο δεν βρέθηκε (ασυνέπεια δεδομένων).");
+                targetCars.add(car);
+            }
+
+            LocalDate today = LocalDate.now();
+            boolean[] freed = new boolean[targets.size()];
+            boolean carsChanged = false;
+            long stamp = state.writeLock();
+            try {
+                for (int i = 0; i < targets.size(); i++) {
+                    Rental r = targets.get(i);
+                    freed[i] = !isReservation(r, today);
+                    bookings.remove(r);
+                    r.markReturned(today);
+                    activeRentals.remove(r.getRentalId());
+                    if (freed[i]) {
+                        targetCars.get(i).setStatus(CarStatus.AVAILABLE);
+                        carsChanged = true;
+                    }
+                }
+            } finally {
+                state.unlockWrite(stamp);
+            }
+
+            store.appendReturns(targets);
+            compactRentalsIfNeeded();
+            if (carsChanged) persistCars(targetCars);
+            for (int i = 0; i < targets.size(); i++) {
+                publish(DataChangeEvent.Kind.RENTAL_RETURNED, targets.get(i));
+                if (freed[i]) publish(DataChangeEvent.Kind.CAR_UPDATED, targetCars.get(i));
+            }
+        } finally {
+            carLocks.unlock(stripes);
+        }
+    }
 
-    private static boolean containsIgnoreCase(String a, String b) {
-        if (a == null || b == null) return false;
-        return a.toLowerCase().contains(b.trim().toLowerCase());
+    private static ValidationException batchError(int index, String message) {
+        return new ValidationException("Αίτημα " + (index + 1) + ": " + message);
     }
 
+    /** Επικάλυψη δύο αιτημάτων του ίδιου batch (ίδια λογική με το {@link BookingIndex}). */
+    private static boolean overlaps(RentalRequest a, RentalRequest b, LocalDate today) {
+        return !a.getStartDate().isAfter(effectiveEnd(b, today)) && !b.getStartDate().isAfter(effectiveEnd(a, today));
+    }
+
+    // an immediate check-out whose end already passed still holds the car until it is returned
+    private static LocalDate effectiveEnd(RentalRequest q, LocalDate today) {
+        if (!q.getStartDate().isAfter(today) && q.getEndDate().isBefore(today)) return today;
+        return q.getEndDate();
+    }
+
+    /** Αναζήτηση κατά id, πρώτα στη μνήμη και μετά στο αρχείο. */
+    public Rental findRentalById(long rentalId) throws IOException {
+        Rental r = read(() -> rentalsById.get(rentalId));
+        return r != null ? r : store.findArchivedRental(rentalId);
+    }
+
+    /** Κράτηση = μη ολοκληρωμένη ενοικίαση που δεν έχει ξεκινήσει ακόμη. */
+    private static boolean isReservation(Rental r, LocalDate today) {
+        return !r.isReturned() && r.getStartDate().isAfter(today);
+    }
+
+    /*
+     * Compaction is also when rentals age out: the archive and the new rentals.csv are written under
+     * the read lock, so no rental is added or returned in between, and only the in-memory removal
+     * takes the write lock.
+     */
+    private void compactRentalsIfNeeded() throws IOException {
+        if (!store.journalNeedsCompaction()) return;
+        List<Rental> old;
+        long stamp = state.readLock();
+        try {
+            old = archivable(LocalDate.now());
+            if (old.isEmpty()) store.saveRentals(rentals);
+            else store.archiveRentals(old, remainingAfter(old));
+        } finally {
+            state.unlockRead(stamp);
+        }
+        if (old.isEmpty()) {
+            // the journal was just emptied: a snapshot now stays valid until the next write
+            refreshSnapshot();
+            return;
+        }
+        stamp = state.writeLock();
+        try {
+            dropArchived(old);
+            store.refreshSnapshot(employees, cars, customers, rentals);
+        } finally {
+            state.unlockWrite(stamp);
+        }
+        // the in-memory lists shrank: views indexing into an older snapshot must re-read it
+        publish(DataChangeEvent.Kind.RENTALS_ARCHIVED, null);
+    }
+
+    // caller holds the lock; completed rentals returned more than HOT_RETENTION_DAYS ago
+    private List<Rental> archivable(LocalDate today) {
+        LocalDate cutoff = today.minusDays(HOT_RETENTION_DAYS);
+        List<Rental> out = new ArrayList<>();
+        for (Rental r : rentals) {
+            LocalDate returned = r.getActualReturnDate() != null ? r.getActualReturnDate() : r.getEndDate();
+            if (r.isReturned() && returned.isBefore(cutoff)) out.add(r);
+        }
+        return out;
+    }
+
+    private List<Rental> remainingAfter(List<Rental> archived) {
+        Set<Long> ids = idsOf(archived);
+        List<Rental> out = new ArrayList<>(Math.max(0, rentals.size() - archived.size()));
+        for (Rental r : rentals) {
+            if (!ids.contains(r.getRentalId())) out.add(r);
+        }
+        return out;
+    }
+
+    // caller holds the write lock; archived rentals are returned, so they are in no active or booking index
+    private void dropArchived(List<Rental> archived) {
+        Set<Long> ids = idsOf(archived);
+        Predicate<Rental> gone = r -> ids.contains(r.getRentalId());
+        rentals.removeIf(gone);
+        Set<Integer> carIds = new HashSet<>();
+        Set<String> afms = new HashSet<>();
+        for (Rental r : archived) {
+            rentalsById.remove(r.getRentalId(), r);
+            for (NavigableSet<Rental> sorted : rentalsSorted.values()) sorted.remove(r);
+            carIds.add(r.getCarId());
+            afms.add(r.getCustomerAfm());
+        }
+        for (Integer carId : carIds) dropFrom(rentalsByCar, carId, gone);
+        for (String afm : afms) dropFrom(rentalsByCustomer, afm, gone);
+    }
+
+    private static <K> void dropFrom(Map<K, AppendOnlyList<Rental>> index, K key, Predicate<Rental> gone) {
+        AppendOnlyList<Rental> list = index.get(key);
+        if (list == null) return;
+        list.removeIf(gone);
+        if (list.size() == 0) index.remove(key);
+    }
+
+    private static Set<Long> idsOf(List<Rental> list) {
+        Set<Long> ids = new HashSet<>();
+        for (Rental r : list) ids.add(r.getRentalId());
+        return ids;
+    }
+
+    // ---------------- Locking ----------------
+
+    /**
+     * Ανάγνωση χωρίς lock: αν στο μεταξύ έγινε εγγραφή (ή η ανάγνωση είδε ενδιάμεση
+     * κατάσταση και απέτυχε), επαναλαμβάνεται μία φορά με read lock.
+     * Μόνο για αναζητήσεις ενός κλειδιού· η διάσχιση ευρετηρίων γίνεται με {@link #readLocked(Supplier)}.
+     */
+    private <T> T read(Supplier<T> reader) {
+        long stamp = state.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                T result = reader.get();
+                if (state.validate(stamp)) return result;
+            } catch (RuntimeException torn) {
+                // raced with a writer; fall through to the locked read
+            }
+        }
+        return readLocked(reader);
+    }
+
+    /**
+     * Ανάγνωση με read lock. Οι σαρώσεις (αναζητήσεις, διαθεσιμότητα, αντίγραφα ευρετηρίων) διασχίζουν
+     * HashMap/TreeMap που δεν είναι thread-safe, οπότε δεν πρέπει να τρέχουν ταυτόχρονα με εγγραφή.
+     */
+    private <T> T readLocked(Supplier<T> reader) {
+        long stamp = state.readLock();
+        try {
+            return reader.get();
+        } finally {
+            state.unlockRead(stamp);
+        }
+    }
+
+    /*
+     * Only the dirty records among 'changed' are written, as delta lines built inside the store's
+     * monitor; doing that under the read lock means each line (and each compaction copy) is a
+     * complete state and they reach the store in the order the states were made.
+     */
+    private void persistCars(List<Car> changed) throws IOException {
+        long stamp = state.readLock();
+        try {
+            store.saveCarChanges(changed, cars);
+        } finally {
+            state.unlockRead(stamp);
+        }
+    }
+
+    private void persistCustomers(List<Customer> changed) throws IOException {
+        long stamp = state.readLock();
+        try {
+            store.saveCustomerChanges(changed, customers);
+        } finally {
+            state.unlockRead(stamp);
+        }
+    }
+
+    private void persistEmployees(List<Employee> changed, List<String> removedUsernames) throws IOException {
+        long stamp = state.readLock();
+        try {
+            store.saveEmployeeChanges(changed, removedUsernames, employees);
+        } finally {
+            state.unlockRead(stamp);
+        }
+    }
+
+    // ---------------- Indexes ----------------
+
+    private void rebuildIndexes() {
+        carsById.clear();
+        carsByPlate.clear();
+        carsByType.clear();
+        for (Car c : cars) indexCar(c);
+        carSearch.rebuild(cars);
+        customersByAfm.clear();
+        for (Customer c : customers) customersByAfm.putIfAbsent(c.getAfm(), c);
+        customerSearch.rebuild(customers);
+        rentalsById.clear();
+        rentalsByCar.clear();
+        rentalsByCustomer.clear();
+        for (NavigableSet<Rental> sorted : rentalsSorted.values()) sorted.clear();
+        activeRentals.clear();
+        bookings.clear();
+        for (Rental r : rentals) indexRental(r);
+        rebuildEmployeeIndexes();
+    }
+
+    private void rebuildEmployeeIndexes() {
+        employeesByUsername.clear();
+        employeesByUsernameKey.clear();
+        employeesByEmailKey.clear();
+        for (Employee e : employees) indexEmployee(e);
+    }
+
+    // first occurrence wins, as with the linear scans these maps replace
+    private void indexCar(Car c) {
+        if (carsById.putIfAbsent(c.getId(), c) == null) {
+            carsByType.computeIfAbsent(typeKey(c.getType()), k -> new ArrayList<>()).add(c);
+        }
+        carsByPlate.putIfAbsent(plateKey(c.getPlate()), c);
+    }
+
+    private static String typeKey(String type) {
+        return type == null ? "" : TextFold.fold(type.trim());
+    }
+
+    private void indexRental(Rental r) {
+        rentalsById.putIfAbsent(r.getRentalId(), r);
+        for (NavigableSet<Rental> sorted : rentalsSorted.values()) sorted.add(r);
+        rentalsByCar.computeIfAbsent(r.getCarId(), k -> new AppendOnlyList<>()).add(r);
+        rentalsByCustomer.computeIfAbsent(r.getCustomerAfm(), k -> new AppendOnlyList<>()).add(r);
+        if (!r.isReturned()) {
+            activeRentals.put(r.getRentalId(), r);
+            bookings.add(r);
+        }
+    }
+
+    private void indexEmployee(Employee e) {
+        employeesByUsername.putIfAbsent(e.getUsername(), e);
+        employeesByUsernameKey.putIfAbsent(caseKey(e.getUsername()), e);
+        employeesByEmailKey.putIfAbsent(caseKey(e.getEmail()), e);
+    }
+
+    /** Κλειδί πινακίδας: χωρίς κενά στα άκρα και χωρίς διάκριση πεζών/κεφαλαίων. */
+    private static String plateKey(String plate) {
+        return plate == null ? "" : caseKey(plate.trim());
+    }
+
+    /** Κλειδί ισοδύναμο με equalsIgnoreCase. */
+    private static String caseKey(String s) {
+        return s == null ? "" : s.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+
+    // ---------------- Helpers ----------------
+
     private static boolean isBlank(String s) {
         return s == null || s.trim().isEmpty();
     }
@@ -0,0 +1,142 @@
+package api.service;
+
+import api.model.Car;
+import api.model.CarStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ευρετήριο αναζήτησης αυτοκινήτων με τρίγραμμα ανά πεδίο (πινακίδα, μάρκα, μοντέλο, χρώμα, τύπος).
+ * Οι τιμές κανονικοποιούνται μία φορά κατά την ευρετηρίαση, οπότε η αναζήτηση δεν
+ * δεσμεύει strings ανά αυτοκίνητο. Τα αποτελέσματα έχουν τη σειρά προσθήκης των αυτοκινήτων.
+ */
+final class CarSearchIndex {
+    static final int PLATE = 0, BRAND = 1, MODEL = 2, COLOR = 3, TYPE = 4;
+    private static final int FIELDS = 5;
+
+    private final List<Car> slots = new ArrayList<>();
+    private final List<String[]> folded = new ArrayList<>();
+    private final Map<Integer, Integer> slotByCarId = new HashMap<>();
+    private final TrigramIndex[] grams = new TrigramIndex[FIELDS];
+
+    CarSearchIndex() {
+        for (int f = 0; f < FIELDS; f++) grams[f] = new TrigramIndex();
+    }
+
+    void rebuild(List<Car> cars) {
+        slots.clear();
+        folded.clear();
+        slotByCarId.clear();
+        for (TrigramIndex g : grams) g.clear();
+        for (Car c : cars) add(c);
+    }
+
+    void add(Car c) {
+        if (slotByCarId.containsKey(c.getId())) return;
+        int slot = slots.size();
+        String[] values = foldFields(c);
+        slots.add(c);
+        folded.add(values);
+        slotByCarId.put(c.getId(), slot);
+        for (int f = 0; f < FIELDS; f++) grams[f].add(slot, values[f]);
+    }
+
+    /** Επανευρετηρίαση μετά από αλλαγή πεδίων του αυτοκινήτου. */
+    void update(Car c) {
+        Integer slot = slotByCarId.get(c.getId());
+        if (slot == null) {
+            add(c);
+            return;
+        }
+        String[] old = folded.get(slot);
+        String[] values = foldFields(c);
+        for (int f = 0; f < FIELDS; f++) {
+            if (old[f] == null ? values[f] == null : old[f].equals(values[f])) continue;
+            grams[f].remove(slot, old[f]);
+            grams[f].add(slot, values[f]);
+        }
+        folded.set(slot, values);
+    }
+
+    /**
+     * Όλα τα κριτήρια προαιρετικά (κενό = αγνοείται), με σημασιολογία AND και ταίριασμα
+     * substring χωρίς διάκριση πεζών/κεφαλαίων και τόνων.
+     */
+    List<Car> search(String brand, String plate, String model, String color, String type, CarStatus status) {
+        String[] q = new String[FIELDS];
+        q[PLATE] = query(plate);
+        q[BRAND] = query(brand);
+        q[MODEL] = query(model);
+        q[COLOR] = query(color);
+        q[TYPE] = query(type);
+
+        int[] candidates = null;
+        for (int f = 0; f < FIELDS; f++) {
+            if (q[f] == null) continue;
+            int[] c = grams[f].candidates(q[f]);
+            if (c != null && (candidates == null || c.length < candidates.length)) candidates = c;
+        }
+
+        List<Car> out = new ArrayList<>();
+        if (candidates != null) {
+            for (int slot : candidates) if (matches(slot, q, status)) out.add(slots.get(slot));
+        } else {
+            for (int slot = 0; slot < slots.size(); slot++) if (matches(slot, q, status)) out.add(slots.get(slot));
+        }
+        return out;
+    }
+
+    /**
+     * Έως limit αυτοκίνητα για type-ahead: πρώτα όσα η πινακίδα ξεκινά με το κείμενο, μετά όσα
+     * απλώς το περιέχουν. Η σάρωση σταματά μόλις γεμίσει το όριο.
+     */
+    List<Car> searchPlate(String plate, CarStatus status, int limit) {
+        String q = query(plate);
+        List<Car> out = new ArrayList<>(Math.max(0, Math.min(limit, 64)));
+        if (limit <= 0) return out;
+        int[] candidates = q == null ? null : grams[PLATE].candidates(q);
+        int n = candidates != null ? candidates.length : slots.size();
+        for (int pass = 0; pass < 2 && out.size() < limit; pass++) {
+            boolean prefix = pass == 0;
+            for (int i = 0; i < n && out.size() < limit; i++) {
+                int slot = candidates != null ? candidates[i] : i;
+                String value = folded.get(slot)[PLATE];
+                if (q != null) {
+                    if (value == null || !value.contains(q)) continue;
+                    if (value.startsWith(q) != prefix) continue;
+                } else if (!prefix) {
+                    break; // no text: one pass in insertion order is enough
+                }
+                if (status == null || slots.get(slot).getStatus() == status) out.add(slots.get(slot));
+            }
+        }
+        return out;
+    }
+
+    private boolean matches(int slot, String[] q, CarStatus status) {
+        String[] values = folded.get(slot);
+        for (int f = 0; f < FIELDS; f++) {
+            if (q[f] == null) continue;
+            if (values[f] == null || !values[f].contains(q[f])) return false;
+        }
+        return status == null || slots.get(slot).getStatus() == status;
+    }
+
+    private static String query(String s) {
+        if (s == null || s.trim().isEmpty()) return null;
+        return TextFold.fold(s.trim());
+    }
+
+    private static String[] foldFields(Car c) {
+        String[] v = new String[FIELDS];
+        v[PLATE] = TextFold.fold(c.getPlate());
+        v[BRAND] = TextFold.fold(c.getBrand());
+        v[MODEL] = TextFold.fold(c.getModel());
+        v[COLOR] = TextFold.fold(c.getColor());
+        v[TYPE] = TextFold.fold(c.getType());
+        return v;
+    }
+}
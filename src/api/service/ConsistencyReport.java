@@ -0,0 +1,52 @@
+package api.service;
+
+import api.model.CarStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Αποτέλεσμα του ελέγχου συνέπειας ({@link CarRentalSystem#reconcile()}): ποια αυτοκίνητα
+ * είχαν κατάσταση που δεν συμφωνούσε με τις ενεργές ενοικιάσεις και διορθώθηκαν.
+ */
+public final class ConsistencyReport {
+
+    /** Μία διόρθωση κατάστασης αυτοκινήτου. */
+    public static final class Repair {
+        private final int carId;
+        private final CarStatus from;
+        private final CarStatus to;
+
+        Repair(int carId, CarStatus from, CarStatus to) {
+            this.carId = carId;
+            this.from = from;
+            this.to = to;
+        }
+
+        public int getCarId() { return carId; }
+        public CarStatus getFrom() { return from; }
+        public CarStatus getTo() { return to; }
+
+        @Override
+        public String toString() {
+            return "#" + carId + ": " + from.toGreek() + " -> " + to.toGreek();
+        }
+    }
+
+    private final List<Repair> repairs = new ArrayList<>();
+
+    ConsistencyReport() {}
+
+    void add(Repair r) { repairs.add(r); }
+
+    public List<Repair> getRepairs() { return Collections.unmodifiableList(repairs); }
+
+    /** true αν δεν χρειάστηκε καμία διόρθωση (και άρα δεν έγινε εγγραφή). */
+    public boolean isClean() { return repairs.isEmpty(); }
+
+    @Override
+    public String toString() {
+        return isClean() ? "συνεπή δεδομένα" : repairs.size() + " διορθώσεις " + repairs;
+    }
+}
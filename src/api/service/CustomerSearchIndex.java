@@ -0,0 +1,265 @@
+package api.service;
+
+import api.model.Customer;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Ευρετήριο αναζήτησης πελατών.
+ * Το ονοματεπώνυμο κανονικοποιείται μία φορά ανά πελάτη (πεζά, χωρίς τόνους) και ευρετηριάζεται
+ * με τρίγραμμα (substring) και με ταξινομημένες λέξεις (prefix ανά λέξη, π.χ. "παπ γιωρ").
+ * Το ΑΦΜ και το τηλέφωνο ευρετηριάζονται μόνο με τα ψηφία τους.
+ */
+final class CustomerSearchIndex {
+    private static final int SCORE_EXACT_KEY = 100;
+    private static final int SCORE_NAME_EQUAL = 50;
+    private static final int SCORE_NAME_PREFIX = 30;
+    private static final int SCORE_TOKEN_PREFIX = 20;
+
+    private final List<Customer> slots = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<String[]> nameTokens = new ArrayList<>();
+    private final List<String> afms = new ArrayList<>();
+    private final List<String> phones = new ArrayList<>();
+    private final Map<String, Integer> slotByAfm = new HashMap<>();
+
+    private final TrigramIndex nameGrams = new TrigramIndex();
+    private final TrigramIndex afmGrams = new TrigramIndex();
+    private final TrigramIndex phoneGrams = new TrigramIndex();
+    private final TreeMap<String, IntList> tokens = new TreeMap<>();
+
+    /** Κανονικοποιημένα κριτήρια μιας αναζήτησης. */
+    private static final class Query {
+        String afm;
+        String phone;
+        String name;
+        String[] nameTokens;
+        boolean impossible;
+    }
+
+    void rebuild(List<Customer> customers) {
+        slots.clear();
+        names.clear();
+        nameTokens.clear();
+        afms.clear();
+        phones.clear();
+        slotByAfm.clear();
+        nameGrams.clear();
+        afmGrams.clear();
+        phoneGrams.clear();
+        tokens.clear();
+        for (Customer c : customers) add(c);
+    }
+
+    void add(Customer c) {
+        if (slotByAfm.containsKey(c.getAfm())) return;
+        int slot = slots.size();
+        slots.add(c);
+        names.add(null);
+        nameTokens.add(new String[0]);
+        afms.add(TextFold.digits(c.getAfm()));
+        phones.add(null);
+        slotByAfm.put(c.getAfm(), slot);
+        afmGrams.add(slot, afms.get(slot));
+        indexMutable(slot, c);
+    }
+
+    /** Επανευρετηρίαση ονόματος/τηλεφώνου (το ΑΦΜ είναι κλειδί και δεν αλλάζει). */
+    void update(Customer c) {
+        Integer slot = slotByAfm.get(c.getAfm());
+        if (slot == null) {
+            add(c);
+            return;
+        }
+        nameGrams.remove(slot, names.get(slot));
+        phoneGrams.remove(slot, phones.get(slot));
+        for (String t : nameTokens.get(slot)) {
+            IntList p = tokens.get(t);
+            if (p == null) continue;
+            p.remove(slot);
+            if (p.size() == 0) tokens.remove(t);
+        }
+        indexMutable(slot, c);
+    }
+
+    /** Όλοι οι πελάτες που ταιριάζουν, με τη σειρά προσθήκης. */
+    List<Customer> search(String afm, String name, String phone) {
+        Query q = query(afm, name, phone);
+        List<Customer> out = new ArrayList<>();
+        if (q.impossible) return out;
+        int[] candidates = candidates(q);
+        if (candidates != null) {
+            for (int slot : candidates) if (score(slot, q) >= 0) out.add(slots.get(slot));
+        } else {
+            for (int slot = 0; slot < slots.size(); slot++) if (score(slot, q) >= 0) out.add(slots.get(slot));
+        }
+        return out;
+    }
+
+    /**
+     * Οι limit καλύτεροι: πρώτα ακριβές ΑΦΜ/τηλέφωνο, μετά ίδιο όνομα, όνομα που ξεκινά με το query,
+     * λέξεις που ξεκινούν με τις λέξεις του query και τέλος απλό substring.
+     */
+    List<Customer> search(String afm, String name, String phone, int limit) {
+        Query q = query(afm, name, phone);
+        List<Customer> out = new ArrayList<>();
+        if (q.impossible || limit <= 0) return out;
+
+        // min-heap on (score, -slot): the head is the weakest hit kept so far
+        Comparator<int[]> weakestFirst = (a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(b[1], a[1]);
+        PriorityQueue<int[]> top = new PriorityQueue<>(weakestFirst);
+        int[] candidates = candidates(q);
+        int n = candidates != null ? candidates.length : slots.size();
+        for (int i = 0; i < n; i++) {
+            int slot = candidates != null ? candidates[i] : i;
+            int score = score(slot, q);
+            if (score < 0) continue;
+            int[] hit = {score, slot};
+            if (top.size() < limit) {
+                top.add(hit);
+            } else if (weakestFirst.compare(hit, top.peek()) > 0) {
+                top.poll();
+                top.add(hit);
+            }
+        }
+
+        List<int[]> hits = new ArrayList<>(top);
+        hits.sort(weakestFirst.reversed());
+        for (int[] h : hits) out.add(slots.get(h[1]));
+        return out;
+    }
+
+    // ---------------- Internals ----------------
+
+    private void indexMutable(int slot, Customer c) {
+        String name = TextFold.fold(c.getFullName());
+        String phone = TextFold.digits(c.getPhone());
+        String[] toks = tokenize(name);
+        names.set(slot, name);
+        phones.set(slot, phone);
+        nameTokens.set(slot, toks);
+        nameGrams.add(slot, name);
+        phoneGrams.add(slot, phone);
+        for (String t : toks) tokens.computeIfAbsent(t, k -> new IntList()).add(slot);
+    }
+
+    private static Query query(String afm, String name, String phone) {
+        Query q = new Query();
+        if (!isBlank(afm)) {
+            q.afm = TextFold.digits(afm);
+            q.impossible |= q.afm.isEmpty();
+        }
+        if (!isBlank(phone)) {
+            q.phone = TextFold.digits(phone);
+            q.impossible |= q.phone.isEmpty();
+        }
+        if (!isBlank(name)) {
+            q.name = TextFold.fold(name.trim());
+            q.nameTokens = tokenize(q.name);
+        }
+        return q;
+    }
+
+    /** Ταξινομημένοι υποψήφιοι από το πιο επιλεκτικό κριτήριο, ή null για πλήρη σάρωση. */
+    private int[] candidates(Query q) {
+        int[] best = null;
+        if (q.afm != null) best = smaller(best, afmGrams.candidates(q.afm));
+        if (q.phone != null) best = smaller(best, phoneGrams.candidates(q.phone));
+        if (q.name != null) best = smaller(best, nameCandidates(q));
+        return best;
+    }
+
+    /** Substring (τρίγραμμα) ∪ prefix ανά λέξη· null αν κανένα από τα δύο δεν περιορίζει. */
+    private int[] nameCandidates(Query q) {
+        int[] bySubstring = nameGrams.candidates(q.name);
+        if (q.nameTokens.length == 0) return bySubstring;
+
+        BitSet byTokens = null;
+        for (String t : q.nameTokens) {
+            BitSet hits = new BitSet(slots.size());
+            for (IntList p : tokens.subMap(t, true, t + Character.MAX_VALUE, false).values()) {
+                for (int i = 0; i < p.size(); i++) hits.set(p.get(i));
+            }
+            if (byTokens == null) byTokens = hits;
+            else byTokens.and(hits);
+        }
+        if (bySubstring == null) {
+            // short queries can only be substrings of a longer token, which the prefix walk does not cover
+            return null;
+        }
+        for (int slot : bySubstring) byTokens.set(slot);
+        return byTokens.stream().toArray();
+    }
+
+    /** Βαθμολογία ταιριάσματος ή -1 αν ο πελάτης δεν ταιριάζει. */
+    private int score(int slot, Query q) {
+        int score = 0;
+        if (q.afm != null) {
+            String a = afms.get(slot);
+            if (a == null || !a.contains(q.afm)) return -1;
+            if (a.equals(q.afm)) score += SCORE_EXACT_KEY;
+        }
+        if (q.phone != null) {
+            String p = phones.get(slot);
+            if (p == null || !p.contains(q.phone)) return -1;
+            if (p.equals(q.phone)) score += SCORE_EXACT_KEY;
+        }
+        if (q.name != null) {
+            String n = names.get(slot);
+            if (n == null) return -1;
+            if (n.equals(q.name)) score += SCORE_NAME_EQUAL;
+            else if (n.startsWith(q.name)) score += SCORE_NAME_PREFIX;
+            else if (tokensMatch(nameTokens.get(slot), q.nameTokens)) score += SCORE_TOKEN_PREFIX;
+            else if (!n.contains(q.name)) return -1;
+        }
+        return score;
+    }
+
+    /** Κάθε λέξη του query είναι prefix κάποιας λέξης του ονόματος. */
+    private static boolean tokensMatch(String[] name, String[] query) {
+        if (query.length == 0) return false;
+        for (String t : query) {
+            boolean found = false;
+            for (String n : name) {
+                if (n.startsWith(t)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private static String[] tokenize(String folded) {
+        if (folded == null) return new String[0];
+        List<String> out = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean word = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (word && start < 0) start = i;
+            if (!word && start >= 0) {
+                out.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return out.toArray(new String[0]);
+    }
+
+    private static int[] smaller(int[] a, int[] b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return b.length < a.length ? b : a;
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+}
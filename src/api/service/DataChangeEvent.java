@@ -0,0 +1,59 @@
+package api.service;
+
+import api.model.Car;
+import api.model.Customer;
+import api.model.Employee;
+import api.model.Rental;
+
+/**
+ * Μία αλλαγή στα δεδομένα του {@link CarRentalSystem}, ώστε οι οθόνες να ενημερώνουν μόνο
+ * τις γραμμές που άλλαξαν αντί να ξαναφορτώνουν όλη τη λίστα.
+ */
+public final class DataChangeEvent {
+
+    public enum Kind {
+        CAR_ADDED,
+        /** Αλλαγή στοιχείων ή κατάστασης (διαθέσιμο/ενοικιασμένο) αυτοκινήτου. */
+        CAR_UPDATED,
+        CUSTOMER_ADDED,
+        CUSTOMER_UPDATED,
+        EMPLOYEE_ADDED,
+        EMPLOYEE_REMOVED,
+        RENTAL_CREATED,
+        /** Επιστροφή ή ακύρωση κράτησης. */
+        RENTAL_RETURNED,
+        /**
+         * Παλιές ολοκληρωμένες ενοικιάσεις μεταφέρθηκαν στο αρχείο: το {@link CarRentalSystem#getRentals()}
+         * και τα ιστορικά στη μνήμη μίκρυναν, οπότε οι προβολές τους πρέπει να ξαναδιαβαστούν.
+         */
+        RENTALS_ARCHIVED,
+        /** Όλα τα δεδομένα ξαναφορτώθηκαν· απαιτείται πλήρης ανανέωση. */
+        RELOADED,
+        /**
+         * Απέτυχε μια εργασία παρασκηνίου (π.χ. η αλλαγή ημέρας), που θα ξαναδοκιμαστεί·
+         * η αιτία δίνεται από το {@link #getError()}.
+         */
+        BACKGROUND_FAILURE
+    }
+
+    private final Kind kind;
+    private final Object subject;
+
+    DataChangeEvent(Kind kind, Object subject) {
+        this.kind = kind;
+        this.subject = subject;
+    }
+
+    public Kind getKind() { return kind; }
+
+    public Car getCar() { return subject instanceof Car ? (Car) subject : null; }
+    public Customer getCustomer() { return subject instanceof Customer ? (Customer) subject : null; }
+    public Employee getEmployee() { return subject instanceof Employee ? (Employee) subject : null; }
+    public Rental getRental() { return subject instanceof Rental ? (Rental) subject : null; }
+    public Throwable getError() { return subject instanceof Throwable ? (Throwable) subject : null; }
+
+    @Override
+    public String toString() {
+        return kind + "(" + subject + ")";
+    }
+}
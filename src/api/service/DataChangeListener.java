@@ -0,0 +1,9 @@
+package api.service;
+
+/**
+ * Ειδοποιείται μετά από κάθε αλλαγή του {@link CarRentalSystem}, στο thread που έκανε την αλλαγή
+ * (για το GUI αυτό δεν είναι το EDT).
+ */
+public interface DataChangeListener {
+    void dataChanged(DataChangeEvent e);
+}
@@ -0,0 +1,56 @@
+package api.service;
+
+import java.util.Arrays;
+
+/**
+ * Ταξινομημένη λίστα διακριτών int (posting list) χωρίς boxing.
+ */
+final class IntList {
+    private int[] values = new int[4];
+    private int size;
+
+    int size() { return size; }
+
+    int get(int i) { return values[i]; }
+
+    /** Προσθήκη διατηρώντας τη σειρά· O(1) όταν η τιμή είναι η μεγαλύτερη μέχρι τώρα. */
+    void add(int v) {
+        if (size > 0 && values[size - 1] >= v) {
+            int at = Arrays.binarySearch(values, 0, size, v);
+            if (at >= 0) return;
+            insertAt(-at - 1, v);
+            return;
+        }
+        if (size == values.length) values = Arrays.copyOf(values, size * 2);
+        values[size++] = v;
+    }
+
+    void remove(int v) {
+        int at = Arrays.binarySearch(values, 0, size, v);
+        if (at < 0) return;
+        System.arraycopy(values, at + 1, values, at, size - at - 1);
+        size--;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /** Τομή με ταξινομημένο πίνακα (μέγεθος n)· επιστρέφει το πλήθος που έμεινε στην αρχή του out. */
+    int retainIn(int[] out, int n) {
+        int kept = 0, j = 0;
+        for (int i = 0; i < n && j < size; i++) {
+            int v = out[i];
+            while (j < size && values[j] < v) j++;
+            if (j < size && values[j] == v) out[kept++] = v;
+        }
+        return kept;
+    }
+
+    private void insertAt(int at, int v) {
+        if (size == values.length) values = Arrays.copyOf(values, size * 2);
+        System.arraycopy(values, at, values, at + 1, size - at);
+        values[at] = v;
+        size++;
+    }
+}
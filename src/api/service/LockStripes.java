@@ -0,0 +1,61 @@
+package api.service;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Σταθερός πίνακας locks· κάθε αυτοκίνητο αντιστοιχίζεται σε ένα από αυτά βάσει του id του.
+ * Λειτουργίες σε αυτοκίνητα διαφορετικών stripes εκτελούνται παράλληλα.
+ * Όταν χρειάζονται πολλά stripes, κλειδώνονται πάντα με αύξουσα σειρά ώστε να μη γίνεται deadlock.
+ */
+final class LockStripes {
+    private final ReentrantLock[] locks;
+
+    /** @param count πλήθος stripes (στρογγυλεύεται σε δύναμη του 2) */
+    LockStripes(int count) {
+        int n = Integer.highestOneBit(Math.max(1, count - 1)) << 1;
+        locks = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) locks[i] = new ReentrantLock();
+    }
+
+    int stripeOf(int carId) {
+        int h = carId * 0x9E3779B9; // spread consecutive ids across stripes
+        return (h ^ (h >>> 16)) & (locks.length - 1);
+    }
+
+    ReentrantLock forCar(int carId) {
+        return locks[stripeOf(carId)];
+    }
+
+    /** Κλειδώνει τα stripes των αυτοκινήτων με αύξουσα σειρά και επιστρέφει τους δείκτες τους. */
+    int[] lockCars(int... carIds) {
+        int[] stripes = new int[carIds.length];
+        for (int i = 0; i < carIds.length; i++) stripes[i] = stripeOf(carIds[i]);
+        Arrays.sort(stripes);
+        int distinct = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            if (i == 0 || stripes[i] != stripes[i - 1]) stripes[distinct++] = stripes[i];
+        }
+        stripes = Arrays.copyOf(stripes, distinct);
+        lock(stripes);
+        return stripes;
+    }
+
+    void lockAll() {
+        int[] all = new int[locks.length];
+        for (int i = 0; i < all.length; i++) all[i] = i;
+        lock(all);
+    }
+
+    void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) locks[i].unlock();
+    }
+
+    void unlock(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) locks[stripes[i]].unlock();
+    }
+
+    private void lock(int[] sortedStripes) {
+        for (int s : sortedStripes) locks[s].lock();
+    }
+}
@@ -0,0 +1,26 @@
+package api.service;
+
+import api.model.Rental;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Μία σελίδα αποτελεσμάτων του {@link CarRentalSystem#queryRentals(RentalQuery)}.
+ */
+public final class RentalPage {
+    private final List<Rental> rentals;
+    private final String nextToken;
+
+    RentalPage(List<Rental> rentals, String nextToken) {
+        this.rentals = Collections.unmodifiableList(rentals);
+        this.nextToken = nextToken;
+    }
+
+    public List<Rental> getRentals() { return rentals; }
+
+    /** Token για την επόμενη σελίδα, ή null αν αυτή είναι η τελευταία. */
+    public String getNextToken() { return nextToken; }
+
+    public boolean hasMore() { return nextToken != null; }
+}
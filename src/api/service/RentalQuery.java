@@ -0,0 +1,58 @@
+package api.service;
+
+import api.model.Rental;
+
+import java.util.Comparator;
+
+/**
+ * Κριτήρια για σελιδοποιημένη ανάγνωση ιστορικού ενοικιάσεων
+ * ({@link CarRentalSystem#queryRentals(RentalQuery)}).
+ * Για την επόμενη σελίδα ξαναστέλνεται το ίδιο query με το token της προηγούμενης.
+ */
+public final class RentalQuery {
+
+    public enum SortKey {
+        ID(Comparator.comparingLong(Rental::getRentalId)),
+        START(Comparator.comparing(Rental::getStartDate).thenComparingLong(Rental::getRentalId)),
+        END(Comparator.comparing(Rental::getEndDate).thenComparingLong(Rental::getRentalId));
+
+        private final Comparator<Rental> order;
+
+        SortKey(Comparator<Rental> order) {
+            this.order = order;
+        }
+
+        /** Ολική διάταξη: οι ισοπαλίες λύνονται με το rentalId. */
+        Comparator<Rental> order() {
+            return order;
+        }
+    }
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private SortKey sortKey = SortKey.ID;
+    private boolean descending;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private String customerAfm;
+    private Integer carId;
+    private boolean activeOnly;
+    private String pageToken;
+
+    public RentalQuery sortBy(SortKey key) { this.sortKey = key == null ? SortKey.ID : key; return this; }
+    public RentalQuery descending(boolean descending) { this.descending = descending; return this; }
+    public RentalQuery pageSize(int size) { this.pageSize = size; return this; }
+    public RentalQuery customer(String afm) { this.customerAfm = afm; return this; }
+    public RentalQuery car(Integer carId) { this.carId = carId; return this; }
+    public RentalQuery activeOnly(boolean activeOnly) { this.activeOnly = activeOnly; return this; }
+    /** Token από το {@link RentalPage#getNextToken()}· null για την πρώτη σελίδα. */
+    public RentalQuery pageToken(String token) { this.pageToken = token; return this; }
+
+    public SortKey getSortKey() { return sortKey; }
+    public boolean isDescending() { return descending; }
+    public int getPageSize() { return pageSize; }
+    public String getCustomerAfm() { return customerAfm; }
+    public Integer getCarId() { return carId; }
+    public boolean isActiveOnly() { return activeOnly; }
+    public String getPageToken() { return pageToken; }
+}
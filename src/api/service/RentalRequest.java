@@ -0,0 +1,25 @@
+package api.service;
+
+import java.time.LocalDate;
+
+/**
+ * Ένα αίτημα ενοικίασης μέσα σε batch ({@link CarRentalSystem#rentCars(java.util.List)}).
+ */
+public final class RentalRequest {
+    private final int carId;
+    private final String customerAfm;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    public RentalRequest(int carId, String customerAfm, LocalDate startDate, LocalDate endDate) {
+        this.carId = carId;
+        this.customerAfm = customerAfm;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public int getCarId() { return carId; }
+    public String getCustomerAfm() { return customerAfm; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+}
@@ -0,0 +1,41 @@
+package api.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Κανονικοποίηση κειμένου για αναζητήσεις: πεζά, χωρίς τόνους/διαλυτικά και με το τελικό
+ * σίγμα ίδιο με το σ, ώστε το "γιωργος" να ταιριάζει με το "Γιώργος".
+ * Τα ευρετήρια αναζήτησης και τα φίλτρα των προβολών πρέπει να το χρησιμοποιούν και τα δύο,
+ * ώστε το ίδιο κείμενο να δίνει τα ίδια αποτελέσματα παντού.
+ */
+public final class TextFold {
+    private TextFold() {}
+
+    public static String fold(String s) {
+        if (s == null) return null;
+        boolean ascii = true;
+        for (int i = 0; i < s.length() && ascii; i++) ascii = s.charAt(i) < 0x80;
+        if (ascii) return s.toLowerCase(Locale.ROOT);
+
+        String decomposed = Normalizer.normalize(s.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            sb.append(c == 'ς' ? 'σ' : c);
+        }
+        return sb.toString();
+    }
+
+    /** Μόνο τα ψηφία του κειμένου (για ΑΦΜ και τηλέφωνα). */
+    static String digits(String s) {
+        if (s == null) return null;
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') sb.append(c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package api.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ανεστραμμένο ευρετήριο τριγράμμων: για κάθε τρίγραμμο, τα slots των εγγραφών που το περιέχουν.
+ * Οι τιμές πρέπει να είναι ήδη κανονικοποιημένες (βλ. {@link TextFold}).
+ * Δίνει μόνο υποψήφιους· ο καλών επαληθεύει το ταίριασμα με contains.
+ */
+final class TrigramIndex {
+    private final Map<Long, IntList> postings = new HashMap<>();
+
+    void clear() {
+        postings.clear();
+    }
+
+    void add(int slot, String folded) {
+        if (folded == null) return;
+        for (int i = 0; i + 3 <= folded.length(); i++) {
+            postings.computeIfAbsent(key(folded, i), k -> new IntList()).add(slot);
+        }
+    }
+
+    void remove(int slot, String folded) {
+        if (folded == null) return;
+        for (int i = 0; i + 3 <= folded.length(); i++) {
+            Long k = key(folded, i);
+            IntList p = postings.get(k);
+            if (p == null) continue;
+            p.remove(slot);
+            if (p.size() == 0) postings.remove(k);
+        }
+    }
+
+    /**
+     * Ταξινομημένα slots που περιέχουν όλα τα τρίγραμμα του query,
+     * ή null αν το query είναι μικρότερο από 3 χαρακτήρες (δεν γίνεται περιορισμός).
+     */
+    int[] candidates(String foldedQuery) {
+        if (foldedQuery.length() < 3) return null;
+        List<IntList> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= foldedQuery.length(); i++) {
+            IntList p = postings.get(key(foldedQuery, i));
+            if (p == null) return new int[0];
+            if (!lists.contains(p)) lists.add(p);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        int[] out = lists.get(0).toArray();
+        int n = out.length;
+        for (int i = 1; i < lists.size() && n > 0; i++) {
+            n = lists.get(i).retainIn(out, n);
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static Long key(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+}
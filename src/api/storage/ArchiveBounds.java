@@ -0,0 +1,32 @@
+package api.storage;
+
+import java.time.LocalDate;
+
+/**
+ * Όρια των αρχειοθετημένων ενοικιάσεων ενός αυτοκινήτου ή πελάτη, όπως προκύπτουν από το manifest
+ * και το ευρετήριο κλειδιών των μηνών (χωρίς να διαβαστούν οι μήνες). Τα όρια είναι συντηρητικά:
+ * καμία αρχειοθετημένη ενοικίαση του κλειδιού δεν βρίσκεται εκτός τους.
+ */
+public final class ArchiveBounds {
+    private final long minRentalId;
+    private final long maxRentalId;
+    private final LocalDate firstStart;
+    private final LocalDate lastStart;
+    private final LocalDate lastEnd;
+
+    ArchiveBounds(long minRentalId, long maxRentalId, LocalDate firstStart, LocalDate lastStart, LocalDate lastEnd) {
+        this.minRentalId = minRentalId;
+        this.maxRentalId = maxRentalId;
+        this.firstStart = firstStart;
+        this.lastStart = lastStart;
+        this.lastEnd = lastEnd;
+    }
+
+    public long getMinRentalId() { return minRentalId; }
+    public long getMaxRentalId() { return maxRentalId; }
+
+    /** Καμία ενοικίαση δεν ξεκινά (ούτε λήγει) πριν από αυτή την ημερομηνία. */
+    public LocalDate getFirstStart() { return firstStart; }
+    public LocalDate getLastStart() { return lastStart; }
+    public LocalDate getLastEnd() { return lastEnd; }
+}
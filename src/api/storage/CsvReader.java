@@ -0,0 +1,255 @@
+package api.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming αναγνώστης CSV χωρίς ενδιάμεσες λίστες.
+ * Κάθε εγγραφή αποκωδικοποιείται σε έναν επαναχρησιμοποιούμενο buffer χαρακτήρων
+ * και τα πεδία διαβάζονται απευθείας ως int/long/LocalDate/boolean.
+ * Οι κανόνες quoting/escaping είναι ίδιοι με του {@link CsvUtil#parseLine(String)}·
+ * επιπλέον επιτρέπονται αλλαγές γραμμής μέσα σε εισαγωγικά (όπως τις γράφει το {@link CsvUtil#esc(String)}).
+ */
+public final class CsvReader implements Closeable {
+
+    /** Μετατροπή της τρέχουσας γραμμής σε οντότητα· επιστρέφει null για να αγνοηθεί η γραμμή. */
+    public interface RowMapper<T> {
+        T map(CsvReader row);
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int POOL_SIZE = 256;
+
+    private final Reader in; // null when parsing a fixed in-memory buffer
+    private final char[] buf;
+    private int pos;
+    private int limit;
+
+    private char[] rec = new char[256];
+    private int recLen;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int fields;
+
+    private final String[] pool = new String[POOL_SIZE];
+
+    public CsvReader(Reader in) {
+        this.in = in;
+        this.buf = new char[BUFFER_SIZE];
+    }
+
+    /** Ανάγνωση από ήδη αποκωδικοποιημένους χαρακτήρες (χωρίς αντιγραφή όταν ο buffer έχει array). */
+    CsvReader(CharBuffer chars) {
+        this.in = null;
+        if (chars.hasArray()) {
+            this.buf = chars.array();
+            this.pos = chars.arrayOffset() + chars.position();
+            this.limit = chars.arrayOffset() + chars.limit();
+        } else {
+            this.buf = new char[chars.remaining()];
+            chars.get(buf);
+            this.pos = 0;
+            this.limit = buf.length;
+        }
+    }
+
+    public static CsvReader open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        return new CsvReader(Channels.newReader(ch, StandardCharsets.UTF_8.newDecoder(), BUFFER_SIZE));
+    }
+
+    /**
+     * Διαβάζει όλο το αρχείο (παραλείποντας την επικεφαλίδα) μέσω του mapper.
+     */
+    public static <T> List<T> readAll(Path file, RowMapper<T> mapper) throws IOException {
+        List<T> out = new ArrayList<>();
+        try (CsvReader r = open(file)) {
+            if (r.next()) r.readRemaining(mapper, out);
+        }
+        return out;
+    }
+
+    /** Περνά όλες τις υπόλοιπες εγγραφές από τον mapper. */
+    public <T> void readRemaining(RowMapper<T> mapper, List<T> out) throws IOException {
+        while (next()) {
+            T t = mapper.map(this);
+            if (t != null) out.add(t);
+        }
+    }
+
+    /**
+     * Προχωρά στην επόμενη εγγραφή.
+     * @return false στο τέλος της εισόδου
+     */
+    public boolean next() throws IOException {
+        recLen = 0;
+        fields = 0;
+        if (pos >= limit && !fill()) return false;
+
+        boolean inQuotes = false;
+        int fieldStart = 0;
+        while (pos < limit || fill()) {
+            char c = buf[pos++];
+            if (c == '"') {
+                if (inQuotes && (pos < limit || fill()) && buf[pos] == '"') {
+                    put('"'); // escaped quote inside quotes
+                    pos++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else if (inQuotes) {
+                put(c);
+            } else if (c == ',') {
+                endField(fieldStart);
+                fieldStart = recLen;
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                if ((pos < limit || fill()) && buf[pos] == '\n') pos++;
+                break;
+            } else {
+                put(c);
+            }
+        }
+        endField(fieldStart);
+        return true;
+    }
+
+    public int fieldCount() { return fields; }
+
+    public String getString(int i) {
+        return new String(rec, starts[i], ends[i] - starts[i]);
+    }
+
+    /**
+     * Όπως το {@link #getString(int)}, αλλά επαναχρησιμοποιεί το ίδιο String για επαναλαμβανόμενες
+     * τιμές (username υπαλλήλου, κατάσταση, μάρκα κλπ.) ώστε να μη δεσμεύεται νέο ανά γραμμή.
+     */
+    public String getPooled(int i) {
+        int s = starts[i], len = ends[i] - s;
+        int h = len;
+        for (int k = s; k < s + len; k++) h = 31 * h + rec[k];
+        int slot = (h ^ (h >>> 16)) & (POOL_SIZE - 1);
+        String cached = pool[slot];
+        if (cached != null && cached.length() == len) {
+            boolean same = true;
+            for (int k = 0; k < len && same; k++) same = cached.charAt(k) == rec[s + k];
+            if (same) return cached;
+        }
+        String v = new String(rec, s, len);
+        pool[slot] = v;
+        return v;
+    }
+
+    public boolean fieldEquals(int i, String value) {
+        int s = starts[i], len = ends[i] - s;
+        if (len != value.length()) return false;
+        for (int k = 0; k < len; k++) if (rec[s + k] != value.charAt(k)) return false;
+        return true;
+    }
+
+    public boolean isBlank(int i) {
+        for (int k = starts[i]; k < ends[i]; k++) if (!Character.isWhitespace(rec[k])) return false;
+        return true;
+    }
+
+    public int getInt(int i) {
+        long v = getLong(i);
+        if (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) throw badNumber(i);
+        return (int) v;
+    }
+
+    public long getLong(int i) {
+        int s = starts[i], e = ends[i];
+        if (s == e) throw badNumber(i);
+        boolean neg = false;
+        if (rec[s] == '-' || rec[s] == '+') {
+            neg = rec[s] == '-';
+            if (++s == e) throw badNumber(i);
+        }
+        if (e - s > 18) return Long.parseLong(getString(i)); // let the JDK handle overflow edge cases
+        long v = 0;
+        for (int k = s; k < e; k++) {
+            int d = rec[k] - '0';
+            if (d < 0 || d > 9) throw badNumber(i);
+            v = v * 10 + d;
+        }
+        return neg ? -v : v;
+    }
+
+    /** ISO ημερομηνία yyyy-MM-dd· άλλες μορφές περνούν από το {@link LocalDate#parse(CharSequence)}. */
+    public LocalDate getDate(int i) {
+        int s = starts[i];
+        if (ends[i] - s == 10 && rec[s + 4] == '-' && rec[s + 7] == '-') {
+            int y = digits(s, 4), m = digits(s + 5, 2), d = digits(s + 8, 2);
+            if (y >= 0 && m >= 0 && d >= 0) return LocalDate.of(y, m, d);
+        }
+        return LocalDate.parse(getString(i));
+    }
+
+    public boolean getBoolean(int i) {
+        int s = starts[i];
+        if (ends[i] - s != 4) return false;
+        return Character.toLowerCase(rec[s]) == 't' && Character.toLowerCase(rec[s + 1]) == 'r'
+                && Character.toLowerCase(rec[s + 2]) == 'u' && Character.toLowerCase(rec[s + 3]) == 'e';
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) in.close();
+    }
+
+    // ---------------- Internals ----------------
+
+    private int digits(int from, int count) {
+        int v = 0;
+        for (int k = from; k < from + count; k++) {
+            int d = rec[k] - '0';
+            if (d < 0 || d > 9) return -1;
+            v = v * 10 + d;
+        }
+        return v;
+    }
+
+    private NumberFormatException badNumber(int i) {
+        return new NumberFormatException("For input string: \"" + getString(i) + "\"");
+    }
+
+    private boolean fill() throws IOException {
+        if (in == null) return false;
+        int n;
+        do {
+            n = in.read(buf, 0, buf.length);
+        } while (n == 0);
+        if (n < 0) return false;
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    private void put(char c) {
+        if (recLen == rec.length) rec = Arrays.copyOf(rec, rec.length * 2);
+        rec[recLen++] = c;
+    }
+
+    private void endField(int fieldStart) {
+        if (fields == starts.length) {
+            starts = Arrays.copyOf(starts, fields * 2);
+            ends = Arrays.copyOf(ends, fields * 2);
+        }
+        starts[fields] = fieldStart;
+        ends[fields] = recLen;
+        fields++;
+    }
+}
@@ -3,19 +3,130 @@ package api.storage;
 import api.model.Car;
 import api.model.CarStatus;
 import api.model.Customer;
+import api.model.DirtyTracked;
 import api.model.Employee;
 import api.model.Rental;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class DataStore {
+    private static final String JOURNAL_RENT = "RENT";
+    private static final String JOURNAL_RETURN = "RETURN";
+    private static final String JOURNAL_BATCH = "BATCH";
+    private static final int JOURNAL_COMPACT_THRESHOLD = 1000;
+    private static final String DELTA_UPSERT = "UPSERT";
+    private static final String DELTA_DELETE = "DELETE";
+    /** Ένα delta συμπτύσσεται όταν ξεπεράσει αυτό το μέγεθος και το 1/4 του βασικού CSV. */
+    private static final long DELTA_COMPACT_MIN_CHARS = 64 * 1024;
 
-    public DataStore() {}
+    /** Τα αρχεία από τα οποία εξαρτάται το binary snapshot. */
+    private static final Path[] SNAPSHOT_SOURCES = {
+            PathsConfig.USERS, PathsConfig.USERS_DELTA, PathsConfig.VEHICLES, PathsConfig.VEHICLES_DELTA,
+            PathsConfig.CUSTOMERS, PathsConfig.CUSTOMERS_DELTA, PathsConfig.RENTALS, PathsConfig.RENTALS_JOURNAL
+    };
+    private static final Path[] DELTAS = { PathsConfig.USERS_DELTA, PathsConfig.VEHICLES_DELTA, PathsConfig.CUSTOMERS_DELTA };
+
+    private final WriteBehind writer;
+    // guarded by this: the service persists from several threads
+    private int journalEntries;
+    private boolean snapshotCurrent;
+    // approximate size of each delta file, including appends not flushed yet
+    private final Map<Path, Long> deltaChars = new HashMap<>();
+    private final RentalArchive archive = new RentalArchive(PathsConfig.RENTALS_ARCHIVE_DIR);
+
+    /** Σύγχρονες αποθηκεύσεις με fsync σε κάθε αλλαγή. */
+    public DataStore() {
+        this(Durability.EVERY_COMMIT, 0);
+    }
+
+    /**
+     * @param durability      πότε γίνονται durable οι αλλαγές
+     * @param flushIntervalMs διάστημα group commit για τους τρόπους παρασκηνίου
+     */
+    public DataStore(Durability durability, long flushIntervalMs) {
+        this(durability, flushIntervalMs, true);
+    }
+
+    /**
+     * @param closeOnExit true για shutdown hook που κάνει {@link #close()}· false όταν ο καλών
+     *                    κλείνει μόνος του το store, αφού σταματήσουν όσοι γράφουν σε αυτό
+     */
+    public DataStore(Durability durability, long flushIntervalMs, boolean closeOnExit) {
+        this.writer = new WriteBehind(durability, flushIntervalMs, closeOnExit);
+    }
+
+    /** Γράφει αμέσως όλες τις εκκρεμείς αλλαγές. */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /** Αδειάζει τις εκκρεμείς αλλαγές με fsync και σταματά το thread παρασκηνίου. */
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    // ---------------- Snapshot ----------------
+
+    /**
+     * Φόρτωση όλων των οντοτήτων: από το binary snapshot όταν αντιστοιχεί στα τρέχοντα
+     * αρχεία (μία σειριακή ανάγνωση), αλλιώς από τα CSV.
+     */
+    public synchronized LoadedData loadAll() throws IOException {
+        ensureInitialized();
+        writer.flush();
+        SnapshotFile.Contents snap = SnapshotFile.read(PathsConfig.SNAPSHOT, sourceFingerprint());
+        LoadedData data;
+        if (snap != null) {
+            journalEntries = snap.journalEntries;
+            for (Path delta : DELTAS) trackDeltaSize(delta);
+            snapshotCurrent = true;
+            data = snap.data;
+        } else {
+            snapshotCurrent = false;
+            data = new LoadedData(loadEmployees(), loadCars(), loadCustomers(), loadRentals(), false);
+        }
+        // what was just read is what is on disk
+        markClean(data.getEmployees());
+        markClean(data.getCars());
+        markClean(data.getCustomers());
+        markClean(data.getRentals());
+        return data;
+    }
+
+    /**
+     * Ξαναγράφει το snapshot αν δεν αντιστοιχεί πλέον στα CSV (π.χ. μετά από φόρτωση από CSV
+     * ή από αποθηκεύσεις). Το snapshot είναι μόνο cache, οπότε αποτυχία εγγραφής αγνοείται.
+     */
+    public synchronized void refreshSnapshot(List<Employee> employees, List<Car> cars, List<Customer> customers, List<Rental> rentals) {
+        if (snapshotCurrent) return;
+        try {
+            writer.flush(); // the fingerprint must describe the files as written
+            SnapshotFile.write(PathsConfig.SNAPSHOT, sourceFingerprint(), journalEntries, employees, cars, customers, rentals);
+            snapshotCurrent = true;
+        } catch (IOException ignored) {
+            // next startup simply falls back to the CSV files
+        }
+    }
+
+    private static long[] sourceFingerprint() throws IOException {
+        long[] fp = new long[SNAPSHOT_SOURCES.length * 2];
+        for (int i = 0; i < SNAPSHOT_SOURCES.length; i++) {
+            Path p = SNAPSHOT_SOURCES[i];
+            boolean exists = Files.exists(p);
+            fp[2 * i] = exists ? Files.size(p) : -1;
+            fp[2 * i + 1] = exists ? Files.getLastModifiedTime(p).toMillis() : -1;
+        }
+        return fp;
+    }
 
     public void ensureInitialized() throws IOException {
         if (!Files.exists(PathsConfig.DATA_DIR)) {
@@ -86,146 +197,475 @@ private void writeDefaultMeta() throws IOException {
     }
 }
 
-    public List<Employee> loadEmployees() throws IOException {
+    public synchronized List<Employee> loadEmployees() throws IOException {
         ensureInitialized();
-        List<String> lines = Files.readAllLines(PathsConfig.USERS, StandardCharsets.UTF_8);
-        List<Employee> out = new ArrayList<>();
-        for (int i = 1; i < lines.size(); i++) {
-            List<String> cols = CsvUtil.parseLine(lines.get(i));
-            if (cols.size() < 5) continue;
-            String fullName = cols.get(0) + " " + cols.get(1);
-            out.add(new Employee(fullName, cols.get(2), cols.get(3), cols.get(4)));
-        }
-        return out;
+        writer.flush();
+        List<Employee> base = CsvReader.readAll(PathsConfig.USERS, EMPLOYEE_ROW);
+        return replayDelta(PathsConfig.USERS_DELTA, base, Employee::getUsername, 5, DataStore::employeeFromRow);
     }
 
-    public void saveEmployees(List<Employee> employees) throws IOException {
+    /** Πλήρης εγγραφή του users.csv· αδειάζει και το users.delta. */
+    public synchronized void saveEmployees(List<Employee> employees) throws IOException {
         ensureInitialized();
+        writer.rewrite(PathsConfig.USERS, PathsConfig.USERS_DELTA, employeeLines(employees));
+        compacted(PathsConfig.USERS_DELTA);
+        markClean(employees);
+    }
+
+    /**
+     * Αποθήκευση μόνο όσων άλλαξαν: UPSERT για κάθε dirty υπάλληλο και DELETE για κάθε username
+     * που αφαιρέθηκε, ως append στο users.delta. Όταν το delta μεγαλώσει, γράφεται όλο το all.
+     */
+    public synchronized void saveEmployeeChanges(Collection<Employee> changed, Collection<String> removed,
+                                                 List<Employee> all) throws IOException {
         List<String> lines = new ArrayList<>();
-        lines.add("name,surname,username,email,password");
-        for (Employee e : employees) {
-            String[] parts = splitName(e.getFullName());
-            lines.add(String.join(",",
-                    CsvUtil.esc(parts[0]),
-                    CsvUtil.esc(parts[1]),
-                    CsvUtil.esc(e.getUsername()),
-                    CsvUtil.esc(e.getEmail()),
-                    CsvUtil.esc(e.getPassword())
-            ));
+        List<Employee> written = new ArrayList<>();
+        for (Employee e : changed) {
+            if (!e.isDirty()) continue;
+            lines.add(DELTA_UPSERT + "," + employeeToCsv(e));
+            written.add(e);
         }
-        Files.write(PathsConfig.USERS, lines, StandardCharsets.UTF_8);
+        for (String username : removed) lines.add(DELTA_DELETE + "," + CsvUtil.esc(username));
+        appendDelta(PathsConfig.USERS_DELTA, lines);
+        markClean(written);
+        if (deltaNeedsCompaction(PathsConfig.USERS, PathsConfig.USERS_DELTA)) saveEmployees(all);
     }
 
-    private String[] splitName(String fullName) {
+    private static List<String> employeeLines(List<Employee> employees) {
+        List<String> lines = new ArrayList<>();
+        lines.add("name,surname,username,email,password");
+        for (Employee e : employees) lines.add(employeeToCsv(e));
+        return lines;
+    }
+
+    private static String employeeToCsv(Employee e) {
+        String[] parts = splitName(e.getFullName());
+        return String.join(",",
+                CsvUtil.esc(parts[0]),
+                CsvUtil.esc(parts[1]),
+                CsvUtil.esc(e.getUsername()),
+                CsvUtil.esc(e.getEmail()),
+                CsvUtil.esc(e.getPassword())
+        );
+    }
+
+    private static String[] splitName(String fullName) {
         if (fullName == null) return new String[]{"", ""};
         String[] parts = fullName.trim().split("\\s+", 2);
         if (parts.length == 1) return new String[]{parts[0], ""};
         return new String[]{parts[0], parts[1]};
     }
 
-    public List<Car> loadCars() throws IOException {
+    public synchronized List<Car> loadCars() throws IOException {
         ensureInitialized();
-        List<String> lines = Files.readAllLines(PathsConfig.VEHICLES, StandardCharsets.UTF_8);
-        List<Car> out = new ArrayList<>();
-        for (int i = 1; i < lines.size(); i++) {
-            List<String> c = CsvUtil.parseLine(lines.get(i));
-            if (c.size() < 8) continue;
-            int id = Integer.parseInt(c.get(0));
-            String plate = c.get(1);
-            String brand = c.get(2);
-            String type = c.get(3);
-            String model = c.get(4);
-            int year = Integer.parseInt(c.get(5));
-            String color = c.get(6);
-            CarStatus status = CarStatus.fromGreek(c.get(7));
-            out.add(new Car(id, plate, brand, type, model, year, color, status));
-        }
-        return out;
-    }
-
-    public void saveCars(List<Car> cars) throws IOException {
+        writer.flush();
+        List<Car> base = ParallelCsvLoader.readAll(PathsConfig.VEHICLES, CAR_ROW);
+        return replayDelta(PathsConfig.VEHICLES_DELTA, base, c -> String.valueOf(c.getId()), 8, DataStore::carFromRow);
+    }
+
+    /** Πλήρης εγγραφή του CSV αυτοκινήτων (compaction)· αδειάζει και το vehicles.delta. */
+    public synchronized void saveCars(List<Car> cars) throws IOException {
         ensureInitialized();
+        writer.rewrite(PathsConfig.VEHICLES, PathsConfig.VEHICLES_DELTA, carLines(cars));
+        compacted(PathsConfig.VEHICLES_DELTA);
+        markClean(cars);
+    }
+
+    /**
+     * Αποθήκευση μόνο των αυτοκινήτων του changed που είναι dirty, ως γραμμές UPSERT στο
+     * vehicles.delta: το κόστος εξαρτάται από τις αλλαγές, όχι από το μέγεθος του στόλου.
+     * Όταν το delta μεγαλώσει αρκετά, συμπτύσσεται γράφοντας όλο το all.
+     */
+    public synchronized void saveCarChanges(Collection<Car> changed, List<Car> all) throws IOException {
+        List<String> lines = new ArrayList<>();
+        List<Car> written = new ArrayList<>();
+        for (Car c : changed) {
+            if (!c.isDirty()) continue;
+            lines.add(DELTA_UPSERT + "," + carToCsv(c));
+            written.add(c);
+        }
+        appendDelta(PathsConfig.VEHICLES_DELTA, lines);
+        // only now: if the append throws, the records stay dirty and the next save writes them again
+        markClean(written);
+        if (deltaNeedsCompaction(PathsConfig.VEHICLES, PathsConfig.VEHICLES_DELTA)) saveCars(all);
+    }
+
+    private static List<String> carLines(List<Car> cars) {
         List<String> lines = new ArrayList<>();
         lines.add("id,plate,brand,type,model,year,color,status");
-        for (Car car : cars) {
-            lines.add(String.join(",",
-                    String.valueOf(car.getId()),
-                    CsvUtil.esc(car.getPlate()),
-                    CsvUtil.esc(car.getBrand()),
-                    CsvUtil.esc(car.getType()),
-                    CsvUtil.esc(car.getModel()),
-                    String.valueOf(car.getYear()),
-                    CsvUtil.esc(car.getColor()),
-                    CsvUtil.esc(car.getStatus().toGreek())
-            ));
-        }
-        Files.write(PathsConfig.VEHICLES, lines, StandardCharsets.UTF_8);
-    }
-
-    public List<Customer> loadCustomers() throws IOException {
+        for (Car car : cars) lines.add(carToCsv(car));
+        return lines;
+    }
+
+    private static String carToCsv(Car car) {
+        return String.join(",",
+                String.valueOf(car.getId()),
+                CsvUtil.esc(car.getPlate()),
+                CsvUtil.esc(car.getBrand()),
+                CsvUtil.esc(car.getType()),
+                CsvUtil.esc(car.getModel()),
+                String.valueOf(car.getYear()),
+                CsvUtil.esc(car.getColor()),
+                CsvUtil.esc(car.getStatus().toGreek())
+        );
+    }
+
+    public synchronized List<Customer> loadCustomers() throws IOException {
         ensureInitialized();
-        List<String> lines = Files.readAllLines(PathsConfig.CUSTOMERS, StandardCharsets.UTF_8);
-        List<Customer> out = new ArrayList<>();
-        for (int i = 1; i < lines.size(); i++) {
-            List<String> c = CsvUtil.parseLine(lines.get(i));
-            if (c.size() < 4) continue;
-            out.add(new Customer(c.get(0), c.get(1), c.get(2), c.get(3)));
-        }
-        return out;
+        writer.flush();
+        List<Customer> base = CsvReader.readAll(PathsConfig.CUSTOMERS, CUSTOMER_ROW);
+        return replayDelta(PathsConfig.CUSTOMERS_DELTA, base, Customer::getAfm, 4, DataStore::customerFromRow);
     }
 
-    public void saveCustomers(List<Customer> customers) throws IOException {
+    /** Πλήρης εγγραφή του customers.csv· αδειάζει και το customers.delta. */
+    public synchronized void saveCustomers(List<Customer> customers) throws IOException {
         ensureInitialized();
+        writer.rewrite(PathsConfig.CUSTOMERS, PathsConfig.CUSTOMERS_DELTA, customerLines(customers));
+        compacted(PathsConfig.CUSTOMERS_DELTA);
+        markClean(customers);
+    }
+
+    /** Όπως το {@link #saveCarChanges(Collection, List)}, για πελάτες (customers.delta). */
+    public synchronized void saveCustomerChanges(Collection<Customer> changed, List<Customer> all) throws IOException {
+        List<String> lines = new ArrayList<>();
+        List<Customer> written = new ArrayList<>();
+        for (Customer c : changed) {
+            if (!c.isDirty()) continue;
+            lines.add(DELTA_UPSERT + "," + customerToCsv(c));
+            written.add(c);
+        }
+        appendDelta(PathsConfig.CUSTOMERS_DELTA, lines);
+        markClean(written);
+        if (deltaNeedsCompaction(PathsConfig.CUSTOMERS, PathsConfig.CUSTOMERS_DELTA)) saveCustomers(all);
+    }
+
+    private static List<String> customerLines(List<Customer> customers) {
         List<String> lines = new ArrayList<>();
         lines.add("afm,fullName,phone,email");
-        for (Customer cu : customers) {
-            lines.add(String.join(",",
-                    CsvUtil.esc(cu.getAfm()),
-                    CsvUtil.esc(cu.getFullName()),
-                    CsvUtil.esc(cu.getPhone()),
-                    CsvUtil.esc(cu.getEmail())
-            ));
+        for (Customer cu : customers) lines.add(customerToCsv(cu));
+        return lines;
+    }
+
+    private static String customerToCsv(Customer cu) {
+        return String.join(",",
+                CsvUtil.esc(cu.getAfm()),
+                CsvUtil.esc(cu.getFullName()),
+                CsvUtil.esc(cu.getPhone()),
+                CsvUtil.esc(cu.getEmail())
+        );
+    }
+
+    private static void markClean(Iterable<? extends DirtyTracked> records) {
+        for (DirtyTracked r : records) r.markClean();
+    }
+
+    // ---------------- Entity deltas ----------------
+
+    /*
+     * vehicles/customers/users each have a sidecar delta of "UPSERT,<csv record>" and "DELETE,<key>"
+     * lines, applied over the CSV at load. Replay is idempotent, so a crash between a compaction
+     * and the truncation of its delta is harmless.
+     */
+
+    private void appendDelta(Path delta, List<String> lines) throws IOException {
+        if (lines.isEmpty()) return;
+        ensureInitialized();
+        writer.append(delta, lines);
+        long chars = 0;
+        for (String line : lines) chars += line.length() + 1;
+        deltaChars.merge(delta, chars, Long::sum);
+        snapshotCurrent = false;
+    }
+
+    // compacting costs a full rewrite; waiting for a quarter of the base file keeps it amortized O(1) per change
+    private boolean deltaNeedsCompaction(Path base, Path delta) throws IOException {
+        long chars = deltaChars.getOrDefault(delta, 0L);
+        if (chars < DELTA_COMPACT_MIN_CHARS) return false;
+        return chars >= (Files.exists(base) ? Files.size(base) : 0) / 4;
+    }
+
+    private void compacted(Path delta) {
+        deltaChars.put(delta, 0L);
+        snapshotCurrent = false;
+    }
+
+    private void trackDeltaSize(Path delta) throws IOException {
+        deltaChars.put(delta, Files.exists(delta) ? Files.size(delta) : 0L);
+    }
+
+    /** Εφαρμόζει το delta πάνω στις εγγραφές του CSV (ενημέρωση στη θέση της, νέα στο τέλος, διαγραφή). */
+    private <T> List<T> replayDelta(Path delta, List<T> base, Function<T, String> key, int fields,
+                                    DeltaRowMapper<T> mapper) throws IOException {
+        trackDeltaSize(delta);
+        if (deltaChars.get(delta) == 0L) return base;
+
+        Map<String, T> byKey = new LinkedHashMap<>();
+        for (T t : base) byKey.put(key.apply(t), t);
+        try (CsvReader row = CsvReader.open(delta)) {
+            while (row.next()) {
+                try {
+                    if (row.fieldEquals(0, DELTA_UPSERT) && row.fieldCount() >= fields + 1) {
+                        T t = mapper.map(row, 1);
+                        byKey.put(key.apply(t), t);
+                    } else if (row.fieldEquals(0, DELTA_DELETE) && row.fieldCount() >= 2) {
+                        byKey.remove(row.getString(1));
+                    }
+                } catch (RuntimeException torn) {
+                    // partially written last record after a crash
+                    continue;
+                }
+            }
         }
-        Files.write(PathsConfig.CUSTOMERS, lines, StandardCharsets.UTF_8);
+        return new ArrayList<>(byKey.values());
     }
 
-    public List<Rental> loadRentals() throws IOException {
+    private interface DeltaRowMapper<T> {
+        T map(CsvReader row, int off);
+    }
+
+    public synchronized List<Rental> loadRentals() throws IOException {
         ensureInitialized();
-        List<String> lines = Files.readAllLines(PathsConfig.RENTALS, StandardCharsets.UTF_8);
-        List<Rental> out = new ArrayList<>();
-        for (int i = 1; i < lines.size(); i++) {
-            List<String> c = CsvUtil.parseLine(lines.get(i));
-            if (c.size() < 8) continue;
-            long rentalId = Long.parseLong(c.get(0));
-            int carId = Integer.parseInt(c.get(1));
-            String customerAfm = c.get(2);
-            String employeeUsername = c.get(3);
-            LocalDate startDate = LocalDate.parse(c.get(4));
-            LocalDate endDate = LocalDate.parse(c.get(5));
-            boolean returned = Boolean.parseBoolean(c.get(6));
-            LocalDate actual = c.get(7) == null || c.get(7).trim().isEmpty() ? null : LocalDate.parse(c.get(7));
-            out.add(new Rental(rentalId, carId, customerAfm, employeeUsername, startDate, endDate, returned, actual));
-        }
-        return out;
-    }
-
-    public void saveRentals(List<Rental> rentals) throws IOException {
+        writer.flush();
+        List<Rental> base = ParallelCsvLoader.readAll(PathsConfig.RENTALS, RENTAL_ROW);
+        return replayJournal(base);
+    }
+
+    /**
+     * Πλήρης εγγραφή του rentals.csv (compaction): γράφεται πρώτα σε προσωρινό αρχείο,
+     * μετά αντικαθιστά το παλιό και τέλος αδειάζει το journal.
+     */
+    public synchronized void saveRentals(List<Rental> rentals) throws IOException {
         ensureInitialized();
+        writer.rewrite(PathsConfig.RENTALS, PathsConfig.RENTALS_JOURNAL, rentalLines(rentals));
+        journalEntries = 0;
+        snapshotCurrent = false;
+        markClean(rentals);
+    }
+
+    // ---------------- Rental archive ----------------
+
+    /**
+     * Μεταφορά ολοκληρωμένων ενοικιάσεων στο αρχείο ανά μήνα και compaction του rentals.csv
+     * στις υπόλοιπες. Το αρχείο γράφεται (durable) πριν προγραμματιστεί η εγγραφή του rentals.csv,
+     * οπότε μετά από crash μια ενοικίαση μπορεί να βρεθεί και στα δύο, ποτέ σε κανένα.
+     */
+    public synchronized void archiveRentals(List<Rental> completed, List<Rental> remaining) throws IOException {
+        ensureInitialized();
+        archive.add(completed);
+        saveRentals(remaining);
+    }
+
+    /**
+     * Αρχειοθετημένες ενοικιάσεις που επικαλύπτουν το [from, to] (null = χωρίς όριο) και περνούν
+     * το φίλτρο· διαβάζονται μόνο οι μήνες που μπορεί να ταιριάζουν.
+     */
+    public List<Rental> loadArchivedRentals(LocalDate from, LocalDate to, Predicate<Rental> filter) throws IOException {
+        return archive.find(from, to, filter);
+    }
+
+    /** Οι αρχειοθετημένες ενοικιάσεις του αυτοκινήτου· διαβάζονται μόνο οι μήνες όπου εμφανίζεται. */
+    public List<Rental> loadArchivedRentalsForCar(int carId) throws IOException {
+        return archive.findByCar(carId);
+    }
+
+    /** Οι αρχειοθετημένες ενοικιάσεις του πελάτη· διαβάζονται μόνο οι μήνες όπου εμφανίζεται. */
+    public List<Rental> loadArchivedRentalsForCustomer(String afm) throws IOException {
+        return archive.findByCustomer(afm);
+    }
+
+    /** Όρια των αρχειοθετημένων ενοικιάσεων του αυτοκινήτου (null αν δεν έχει), χωρίς ανάγνωση των μηνών. */
+    public ArchiveBounds archivedBoundsForCar(int carId) throws IOException {
+        return archive.boundsForCar(carId);
+    }
+
+    /** Όρια των αρχειοθετημένων ενοικιάσεων του πελάτη (null αν δεν έχει), χωρίς ανάγνωση των μηνών. */
+    public ArchiveBounds archivedBoundsForCustomer(String afm) throws IOException {
+        return archive.boundsForCustomer(afm);
+    }
+
+    /** Αναζήτηση στο αρχείο κατά rentalId (null αν δεν υπάρχει). */
+    public Rental findArchivedRental(long rentalId) throws IOException {
+        return archive.findById(rentalId);
+    }
+
+    public int archivedRentalCount() throws IOException {
+        return archive.size();
+    }
+
+    /** Το μεγαλύτερο rentalId του αρχείου (0 αν είναι άδειο). */
+    public long maxArchivedRentalId() throws IOException {
+        return archive.maxRentalId();
+    }
+
+    private static List<String> rentalLines(List<Rental> rentals) {
         List<String> lines = new ArrayList<>();
-        lines.add("rentalId,carId,customerAfm,employeeUsername,startDate,endDate,returned,actualReturnDate");
+        lines.add(RENTAL_HEADER);
         for (Rental r : rentals) {
-            lines.add(String.join(",",
-                    String.valueOf(r.getRentalId()),
-                    String.valueOf(r.getCarId()),
-                    CsvUtil.esc(r.getCustomerAfm()),
-                    CsvUtil.esc(r.getEmployeeUsername()),
-                    CsvUtil.esc(r.getStartDate().toString()),
-                    CsvUtil.esc(r.getEndDate().toString()),
-                    String.valueOf(r.isReturned()),
-                    CsvUtil.esc(r.getActualReturnDate() == null ? "" : r.getActualReturnDate().toString())
-            ));
+            lines.add(rentalToCsv(r));
+        }
+        return lines;
+    }
+
+    // ---------------- Rental journal ----------------
+
+    /** Καταγραφή νέας ενοικίασης στο journal (append, σταθερό κόστος). */
+    public synchronized void appendRental(Rental r) throws IOException {
+        appendJournal(JOURNAL_RENT + "," + rentalToCsv(r));
+        r.markClean();
+    }
+
+    /** Καταγραφή επιστροφής στο journal (append, σταθερό κόστος), με την actualReturnDate της ενοικίασης. */
+    public synchronized void appendReturn(Rental r) throws IOException {
+        appendJournal(JOURNAL_RETURN + "," + r.getRentalId() + "," + r.getActualReturnDate());
+        r.markClean();
+    }
+
+    /**
+     * Καταγραφή πολλών ενοικιάσεων με ένα append. Οι εγγραφές μπαίνουν κάτω από μία γραμμή
+     * BATCH,n: μετά από crash εφαρμόζονται είτε όλες είτε καμία.
+     */
+    public synchronized void appendRentals(List<Rental> rentals) throws IOException {
+        List<String> lines = new ArrayList<>(rentals.size());
+        for (Rental r : rentals) lines.add(JOURNAL_RENT + "," + rentalToCsv(r));
+        appendJournalBatch(lines);
+        markClean(rentals);
+    }
+
+    /** Όπως το {@link #appendRentals(List)}, για επιστροφές (χρησιμοποιείται η actualReturnDate κάθε ενοικίασης). */
+    public synchronized void appendReturns(List<Rental> returned) throws IOException {
+        List<String> lines = new ArrayList<>(returned.size());
+        for (Rental r : returned) lines.add(JOURNAL_RETURN + "," + r.getRentalId() + "," + r.getActualReturnDate());
+        appendJournalBatch(lines);
+        markClean(returned);
+    }
+
+    /** true όταν το journal έχει μεγαλώσει αρκετά ώστε να αξίζει compaction στο rentals.csv. */
+    public synchronized boolean journalNeedsCompaction() {
+        return journalEntries >= JOURNAL_COMPACT_THRESHOLD;
+    }
+
+    private void appendJournal(String line) throws IOException {
+        ensureInitialized();
+        writer.append(PathsConfig.RENTALS_JOURNAL, Collections.singletonList(line));
+        journalEntries++;
+        snapshotCurrent = false;
+    }
+
+    private void appendJournalBatch(List<String> entries) throws IOException {
+        if (entries.isEmpty()) return;
+        if (entries.size() == 1) {
+            appendJournal(entries.get(0));
+            return;
+        }
+        ensureInitialized();
+        List<String> lines = new ArrayList<>(entries.size() + 1);
+        lines.add(JOURNAL_BATCH + "," + entries.size());
+        lines.addAll(entries);
+        writer.append(PathsConfig.RENTALS_JOURNAL, lines);
+        journalEntries += entries.size();
+        snapshotCurrent = false;
+    }
+
+    /**
+     * Εφαρμόζει τις εγγραφές του journal πάνω στις ενοικιάσεις του rentals.csv.
+     * Η αναπαραγωγή είναι idempotent (κλειδί το rentalId), ώστε ένα crash μεταξύ
+     * compaction και καθαρισμού του journal να μη διπλασιάζει εγγραφές. Ένα BATCH που
+     * διακόπηκε από crash αγνοείται ολόκληρο.
+     */
+    private List<Rental> replayJournal(List<Rental> base) throws IOException {
+        journalEntries = 0;
+        if (!Files.exists(PathsConfig.RENTALS_JOURNAL) || Files.size(PathsConfig.RENTALS_JOURNAL) == 0) return base;
+
+        Map<Long, Rental> byId = new LinkedHashMap<>();
+        for (Rental r : base) byId.put(r.getRentalId(), r);
+        try (CsvReader row = CsvReader.open(PathsConfig.RENTALS_JOURNAL)) {
+            while (row.next()) {
+                try {
+                    if (row.fieldEquals(0, JOURNAL_BATCH) && row.fieldCount() >= 2) {
+                        int n = row.getInt(1);
+                        List<Runnable> batch = new ArrayList<>(n);
+                        for (int i = 0; i < n; i++) {
+                            Runnable entry = row.next() ? journalEntry(row, byId) : null;
+                            if (entry == null) throw new IllegalStateException("incomplete batch");
+                            batch.add(entry);
+                        }
+                        for (Runnable entry : batch) entry.run();
+                        journalEntries += n;
+                    } else {
+                        Runnable entry = journalEntry(row, byId);
+                        if (entry == null) continue;
+                        entry.run();
+                        journalEntries++;
+                    }
+                } catch (RuntimeException torn) {
+                    // partially written last record (or batch) after a crash
+                    continue;
+                }
+            }
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    /** Αναλύει μια εγγραφή RENT/RETURN· η εφαρμογή της γίνεται όταν τρέξει το αποτέλεσμα. */
+    private static Runnable journalEntry(CsvReader row, Map<Long, Rental> byId) {
+        if (row.fieldEquals(0, JOURNAL_RENT) && row.fieldCount() >= 9) {
+            Rental r = rentalFromRow(row, 1);
+            return () -> byId.put(r.getRentalId(), r);
         }
-        Files.write(PathsConfig.RENTALS, lines, StandardCharsets.UTF_8);
+        if (row.fieldEquals(0, JOURNAL_RETURN) && row.fieldCount() >= 3) {
+            long rentalId = row.getLong(1);
+            LocalDate when = row.getDate(2);
+            return () -> {
+                Rental r = byId.get(rentalId);
+                if (r != null) r.markReturned(when);
+            };
+        }
+        return null;
+    }
+
+    // ---------------- Row mappers ----------------
+
+    private static final CsvReader.RowMapper<Employee> EMPLOYEE_ROW = row -> row.fieldCount() < 5 ? null : employeeFromRow(row, 0);
+
+    private static final CsvReader.RowMapper<Car> CAR_ROW = row -> row.fieldCount() < 8 ? null : carFromRow(row, 0);
+
+    private static final CsvReader.RowMapper<Customer> CUSTOMER_ROW = row -> row.fieldCount() < 4 ? null : customerFromRow(row, 0);
+
+    private static Employee employeeFromRow(CsvReader row, int off) {
+        String fullName = row.getString(off) + " " + row.getString(off + 1);
+        return new Employee(fullName, row.getString(off + 2), row.getString(off + 3), row.getString(off + 4));
+    }
+
+    private static Car carFromRow(CsvReader row, int off) {
+        return new Car(row.getInt(off), row.getString(off + 1), row.getPooled(off + 2), row.getPooled(off + 3),
+                row.getPooled(off + 4), row.getInt(off + 5), row.getPooled(off + 6), CarStatus.fromGreek(row.getPooled(off + 7)));
+    }
+
+    private static Customer customerFromRow(CsvReader row, int off) {
+        return new Customer(row.getString(off), row.getString(off + 1), row.getString(off + 2), row.getString(off + 3));
+    }
+
+    static final String RENTAL_HEADER = "rentalId,carId,customerAfm,employeeUsername,startDate,endDate,returned,actualReturnDate";
+
+    static final CsvReader.RowMapper<Rental> RENTAL_ROW = row -> row.fieldCount() < 8 ? null : rentalFromRow(row, 0);
+
+    private static Rental rentalFromRow(CsvReader row, int off) {
+        LocalDate actual = row.isBlank(off + 7) ? null : row.getDate(off + 7);
+        return new Rental(row.getLong(off), row.getInt(off + 1), row.getString(off + 2), row.getPooled(off + 3),
+                row.getDate(off + 4), row.getDate(off + 5), row.getBoolean(off + 6), actual);
+    }
+
+    static String rentalToCsv(Rental r) {
+        return String.join(",",
+                String.valueOf(r.getRentalId()),
+                String.valueOf(r.getCarId()),
+                CsvUtil.esc(r.getCustomerAfm()),
+                CsvUtil.esc(r.getEmployeeUsername()),
+                CsvUtil.esc(r.getStartDate().toString()),
+                CsvUtil.esc(r.getEndDate().toString()),
+                String.valueOf(r.isReturned()),
+                CsvUtil.esc(r.getActualReturnDate() == null ? "" : r.getActualReturnDate().toString())
+        );
     }
 
     public Properties loadMeta() throws IOException {
@@ -237,10 +677,17 @@ private void writeDefaultMeta() throws IOException {
         return p;
     }
 
+    /**
+     * Σύγχρονη και durable εγγραφή (fsync + atomic move), ανεξάρτητα από το {@link Durability}:
+     * το {@link IdAllocator} βασίζεται σε αυτό για να μην ξαναδώσει ids μετά από crash.
+     */
     public void saveMeta(Properties p) throws IOException {
         // meta file should exist; do not call ensureInitialized() here to avoid recursion
-        try (OutputStream out = Files.newOutputStream(PathsConfig.META)) {
+        Path tmp = PathsConfig.META.resolveSibling(PathsConfig.META.getFileName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp.toFile())) {
             p.store(out, "CarRentalApp metadata");
+            out.getFD().sync();
         }
+        Files.move(tmp, PathsConfig.META, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package api.storage;
+
+/**
+ * Πότε γίνονται durable (fsync) οι αποθηκεύσεις του {@link DataStore}.
+ */
+public enum Durability {
+    /** Εγγραφή και fsync σε κάθε αλλαγή, στο thread που την κάνει (η αρχική συμπεριφορά). */
+    EVERY_COMMIT,
+    /** Εγγραφή στο παρασκήνιο ανά διάστημα flush, με fsync σε κάθε flush. */
+    INTERVAL,
+    /** Εγγραφή στο παρασκήνιο ανά διάστημα flush, fsync μόνο κατά τον τερματισμό. */
+    ON_SHUTDOWN
+}
@@ -0,0 +1,69 @@
+package api.storage;
+
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Hi/lo δέσμευση αναγνωριστικών.
+ * Στο meta.properties αποθηκεύεται μόνο το ανώτατο όριο (high-water mark) του τελευταίου
+ * μπλοκ που δόθηκε· τα ids μέσα στο μπλοκ μοιράζονται από τη μνήμη χωρίς I/O.
+ * Μετά από crash τα αχρησιμοποίητα ids του μπλοκ χάνονται, αλλά δεν ξαναδίνονται ποτέ.
+ */
+public final class IdAllocator {
+    private final DataStore store;
+    private final String key;
+    private final int blockSize;
+
+    private long next;
+    private long limit; // exclusive end of the leased block
+
+    /**
+     * @param key       το property στο meta.properties (π.χ. "nextRentalId")
+     * @param blockSize πόσα ids δεσμεύονται σε κάθε εγγραφή του meta
+     */
+    public IdAllocator(DataStore store, String key, int blockSize) {
+        if (blockSize <= 0) throw new IllegalArgumentException("blockSize must be positive");
+        this.store = store;
+        this.key = key;
+        this.blockSize = blockSize;
+    }
+
+    /** Επόμενο id· κάνει I/O μόνο όταν εξαντληθεί το τρέχον μπλοκ. */
+    public synchronized long next() throws IOException {
+        if (next >= limit) lease(1);
+        return next++;
+    }
+
+    /**
+     * Δεσμεύει count συνεχόμενα ids και επιστρέφει το πρώτο.
+     */
+    public synchronized long next(int count) throws IOException {
+        if (count <= 0) throw new IllegalArgumentException("count must be positive");
+        if (limit - next < count) lease(count);
+        long first = next;
+        next += count;
+        return first;
+    }
+
+    /**
+     * Εγγυάται ότι τα επόμενα ids θα είναι μεγαλύτερα από floor (π.χ. το μέγιστο υπάρχον id,
+     * σε περίπτωση που τα αρχεία επεξεργάστηκαν με το χέρι).
+     */
+    public synchronized void ensureAbove(long floor) {
+        if (next <= floor) {
+            next = floor + 1;
+            if (limit < next) limit = next; // forces a fresh lease on the next call
+        }
+    }
+
+    private void lease(int atLeast) throws IOException {
+        Properties p = store.loadMeta();
+        long highWater = Long.parseLong(p.getProperty(key, "1"));
+        long start = Math.max(highWater, next);
+        long end = start + Math.max(blockSize, atLeast);
+        p.setProperty(key, String.valueOf(end));
+        store.saveMeta(p); // durable before any id of the block is handed out
+        next = start;
+        limit = end;
+    }
+}
@@ -0,0 +1,36 @@
+package api.storage;
+
+import api.model.Car;
+import api.model.Customer;
+import api.model.Employee;
+import api.model.Rental;
+
+import java.util.List;
+
+/**
+ * Τα δεδομένα όπως φορτώθηκαν από το {@link DataStore} (από τα CSV ή από το binary snapshot).
+ */
+public final class LoadedData {
+    private final List<Employee> employees;
+    private final List<Car> cars;
+    private final List<Customer> customers;
+    private final List<Rental> rentals;
+    private final boolean fromSnapshot;
+
+    public LoadedData(List<Employee> employees, List<Car> cars, List<Customer> customers, List<Rental> rentals,
+                      boolean fromSnapshot) {
+        this.employees = employees;
+        this.cars = cars;
+        this.customers = customers;
+        this.rentals = rentals;
+        this.fromSnapshot = fromSnapshot;
+    }
+
+    public List<Employee> getEmployees() { return employees; }
+    public List<Car> getCars() { return cars; }
+    public List<Customer> getCustomers() { return customers; }
+    public List<Rental> getRentals() { return rentals; }
+
+    /** true αν τα δεδομένα ήρθαν από το snapshot αντί για τα CSV. */
+    public boolean isFromSnapshot() { return fromSnapshot; }
+}
@@ -0,0 +1,114 @@
+package api.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Παράλληλη φόρτωση μεγάλων CSV.
+ * Το αρχείο γίνεται memory-map, χωρίζεται σε τεμάχια σε αλλαγές γραμμής που δεν βρίσκονται
+ * μέσα σε εισαγωγικά, κάθε τεμάχιο αναλύεται σε ξεχωριστό task του ForkJoinPool και τα
+ * αποτελέσματα ενώνονται με τη σειρά του αρχείου.
+ * Μικρά αρχεία διαβάζονται σειριακά μέσω {@link CsvReader}.
+ */
+final class ParallelCsvLoader {
+    /** Κάτω από αυτό το μέγεθος η σειριακή ανάγνωση είναι ταχύτερη. */
+    static final long MIN_PARALLEL_SIZE = 8L * 1024 * 1024;
+
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final long SCAN_WINDOW = 256L * 1024 * 1024;
+
+    private ParallelCsvLoader() {}
+
+    /**
+     * Διαβάζει όλο το αρχείο (παραλείποντας την επικεφαλίδα) μέσω του mapper, που πρέπει να
+     * είναι thread-safe (οι mappers του {@link DataStore} δεν κρατούν κατάσταση).
+     */
+    static <T> List<T> readAll(Path file, CsvReader.RowMapper<T> mapper) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        long size = Files.size(file);
+        if (size < MIN_PARALLEL_SIZE || pool.getParallelism() < 2) {
+            return CsvReader.readAll(file, mapper);
+        }
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = splitPoints(ch, size, pool.getParallelism() * CHUNKS_PER_THREAD);
+
+            List<ForkJoinTask<List<T>>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long from = bounds[i], to = bounds[i + 1];
+                boolean header = i == 0;
+                tasks.add(pool.submit(() -> parseChunk(ch, from, to, header, mapper)));
+            }
+
+            List<T> out = new ArrayList<>();
+            for (ForkJoinTask<List<T>> t : tasks) {
+                try {
+                    out.addAll(t.join());
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+            return out;
+        }
+    }
+
+    private static <T> List<T> parseChunk(FileChannel ch, long from, long to, boolean skipHeader,
+                                          CsvReader.RowMapper<T> mapper) {
+        try {
+            MappedByteBuffer bytes = ch.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            CharBuffer chars = StandardCharsets.UTF_8.newDecoder().decode(bytes);
+            List<T> out = new ArrayList<>();
+            CsvReader r = new CsvReader(chars);
+            if (skipHeader && !r.next()) return out;
+            r.readRemaining(mapper, out);
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Όρια τεμαχίων: ξεκινούν πάντα αμέσως μετά από '\n' εκτός εισαγωγικών.
+     * Η κατάσταση των εισαγωγικών βρίσκεται με ένα γρήγορο σειριακό πέρασμα στα bytes
+     * (στο UTF-8 τα bytes '"' και '\n' δεν εμφανίζονται μέσα σε πολυbyte χαρακτήρες).
+     */
+    private static long[] splitPoints(FileChannel ch, long size, int chunks) throws IOException {
+        long target = Math.max(1, size / chunks);
+        List<Long> points = new ArrayList<>();
+        points.add(0L);
+        long nextCut = target;
+        boolean inQuotes = false;
+
+        for (long base = 0; base < size && nextCut < size; base += SCAN_WINDOW) {
+            long len = Math.min(SCAN_WINDOW, size - base);
+            MappedByteBuffer window = ch.map(FileChannel.MapMode.READ_ONLY, base, len);
+            for (int i = 0; i < len; i++) {
+                byte b = window.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n' && !inQuotes && base + i + 1 >= nextCut) {
+                    long cut = base + i + 1;
+                    if (cut < size) points.add(cut);
+                    nextCut = cut + target;
+                    if (nextCut >= size) break;
+                }
+            }
+        }
+        points.add(size);
+
+        long[] out = new long[points.size()];
+        for (int i = 0; i < out.length; i++) out[i] = points.get(i);
+        return out;
+    }
+}
@@ -8,8 +8,14 @@ public final class PathsConfig {
 
     public static final Path DATA_DIR = Paths.get("data");
     public static final Path USERS = DATA_DIR.resolve("users.csv");
+    public static final Path USERS_DELTA = DATA_DIR.resolve("users.delta");
     public static final Path VEHICLES = DATA_DIR.resolve("vehicles_with_plates.csv");
+    public static final Path VEHICLES_DELTA = DATA_DIR.resolve("vehicles.delta");
     public static final Path CUSTOMERS = DATA_DIR.resolve("customers.csv");
+    public static final Path CUSTOMERS_DELTA = DATA_DIR.resolve("customers.delta");
     public static final Path RENTALS = DATA_DIR.resolve("rentals.csv");
+    public static final Path RENTALS_JOURNAL = DATA_DIR.resolve("rentals.journal");
+    public static final Path RENTALS_ARCHIVE_DIR = DATA_DIR.resolve("archive");
     public static final Path META = DATA_DIR.resolve("meta.properties");
+    public static final Path SNAPSHOT = DATA_DIR.resolve("snapshot.bin");
 }
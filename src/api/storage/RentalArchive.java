@@ -0,0 +1,347 @@
+package api.storage;
+
+import api.model.Rental;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Αρχείο ολοκληρωμένων ενοικιάσεων, χωρισμένο ανά μήνα έναρξης ({@code archive/rentals-YYYY-MM.csv}).
+ * Το manifest κρατά για κάθε μήνα το πλήθος, το εύρος των rentalId και την τελευταία ημερομηνία λήξης,
+ * ώστε οι αναζητήσεις κατά ημερομηνία ή id να ανοίγουν μόνο τους μήνες που μπορεί να ταιριάζουν.
+ * Οι μήνες διαβάζονται μόνο όταν ζητηθούν· στη μνήμη μένουν το πολύ {@value #MAX_CACHED_PARTITIONS}.
+ * <p>
+ * Δίπλα σε κάθε μήνα ένα μικρό αρχείο κλειδιών ({@code rentals-YYYY-MM.keys}) λέει ποια αυτοκίνητα και
+ * ποιοι πελάτες έχουν ενοικιάσεις εκεί, οπότε το ιστορικό ενός κλειδιού ανοίγει μόνο τους δικούς του μήνες.
+ * Τα αποτελέσματα ανά κλειδί κρατιούνται (έως {@value #MAX_CACHED_KEYS}) μέχρι την επόμενη αρχειοθέτηση,
+ * ώστε οι διαδοχικές σελίδες του ίδιου ιστορικού να μη διαβάζουν ξανά τον δίσκο.
+ * <p>
+ * Οι εγγραφές είναι σύγχρονες και durable (προσωρινό αρχείο, fsync, atomic move): ο καλών αφαιρεί
+ * τις ενοικιάσεις από το rentals.csv μόνο αφού επιστρέψει το {@link #add(List)}.
+ */
+final class RentalArchive {
+    static final int MAX_CACHED_PARTITIONS = 12;
+    static final int MAX_CACHED_KEYS = 64;
+    private static final String MANIFEST_HEADER = "month,count,minRentalId,maxRentalId,lastEndDate";
+    private static final String KEYS_HEADER = "kind,key";
+    private static final String KEY_CAR = "car";
+    private static final String KEY_CUSTOMER = "afm";
+
+    /** Γραμμή του manifest. */
+    private static final class Partition {
+        final int count;
+        final long minId;
+        final long maxId;
+        final LocalDate lastEnd;
+
+        Partition(int count, long minId, long maxId, LocalDate lastEnd) {
+            this.count = count;
+            this.minId = minId;
+            this.maxId = maxId;
+            this.lastEnd = lastEnd;
+        }
+
+        boolean overlaps(YearMonth month, LocalDate from, LocalDate to) {
+            return (from == null || !lastEnd.isBefore(from)) && (to == null || !month.atDay(1).isAfter(to));
+        }
+    }
+
+    /** Τα κλειδιά ενός μήνα, ταξινομημένα για δυαδική αναζήτηση. */
+    private static final class PartitionKeys {
+        final int[] carIds;
+        final String[] afms;
+
+        PartitionKeys(int[] carIds, String[] afms) {
+            this.carIds = carIds;
+            this.afms = afms;
+        }
+
+        boolean hasCar(int carId) { return Arrays.binarySearch(carIds, carId) >= 0; }
+        boolean hasCustomer(String afm) { return Arrays.binarySearch(afms, afm) >= 0; }
+
+        static PartitionKeys of(List<Rental> rows) {
+            Set<Integer> cars = new TreeSet<>();
+            Set<String> afms = new TreeSet<>();
+            for (Rental r : rows) {
+                cars.add(r.getCarId());
+                afms.add(r.getCustomerAfm());
+            }
+            int[] carIds = new int[cars.size()];
+            int i = 0;
+            for (int id : cars) carIds[i++] = id;
+            return new PartitionKeys(carIds, afms.toArray(new String[0]));
+        }
+    }
+
+    private final Path dir;
+    private final Path manifest;
+    // month -> keys; small, so kept for every month once a history lookup needs them
+    private final Map<YearMonth, PartitionKeys> keys = new HashMap<>();
+    // "car:<id>" / "afm:<afm>" -> that key's archived rentals; dropped whenever the archive grows
+    private final Map<String, List<Rental>> byKey = new LinkedHashMap<String, List<Rental>>(MAX_CACHED_KEYS * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<Rental>> eldest) {
+            return size() > MAX_CACHED_KEYS;
+        }
+    };
+    private NavigableMap<YearMonth, Partition> partitions; // read on first use
+    private final Map<YearMonth, List<Rental>> cache = new LinkedHashMap<YearMonth, List<Rental>>(MAX_CACHED_PARTITIONS * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<YearMonth, List<Rental>> eldest) {
+            return size() > MAX_CACHED_PARTITIONS;
+        }
+    };
+
+    RentalArchive(Path dir) {
+        this.dir = dir;
+        this.manifest = dir.resolve("manifest.csv");
+    }
+
+    synchronized int size() throws IOException {
+        int n = 0;
+        for (Partition p : partitions().values()) n += p.count;
+        return n;
+    }
+
+    /** Το μεγαλύτερο rentalId του αρχείου (0 αν είναι άδειο). */
+    synchronized long maxRentalId() throws IOException {
+        long max = 0;
+        for (Partition p : partitions().values()) max = Math.max(max, p.maxId);
+        return max;
+    }
+
+    /**
+     * Ενοικιάσεις που επικαλύπτουν το [from, to] (null = χωρίς όριο) και περνούν το φίλτρο,
+     * κατά μήνα και rentalId. Μήνες εκτός διαστήματος δεν διαβάζονται καθόλου.
+     */
+    synchronized List<Rental> find(LocalDate from, LocalDate to, Predicate<Rental> filter) throws IOException {
+        List<Rental> out = new ArrayList<>();
+        for (Map.Entry<YearMonth, Partition> e : partitions().entrySet()) {
+            if (!e.getValue().overlaps(e.getKey(), from, to)) continue;
+            List<Rental> cached = cache.get(e.getKey());
+            if (cached != null) {
+                for (Rental r : cached) if (filter.test(r)) out.add(r);
+            } else {
+                // a full history scan would only churn the cache, so uncached months are streamed
+                out.addAll(CsvReader.readAll(file(e.getKey()), row -> {
+                    Rental r = DataStore.RENTAL_ROW.map(row);
+                    return r != null && filter.test(r) ? r : null;
+                }));
+            }
+        }
+        return out;
+    }
+
+    /** Οι αρχειοθετημένες ενοικιάσεις του αυτοκινήτου, κατά μήνα και rentalId. */
+    synchronized List<Rental> findByCar(int carId) throws IOException {
+        return findByKey(KEY_CAR + ":" + carId, k -> k.hasCar(carId), r -> r.getCarId() == carId);
+    }
+
+    /** Οι αρχειοθετημένες ενοικιάσεις του πελάτη, κατά μήνα και rentalId. */
+    synchronized List<Rental> findByCustomer(String afm) throws IOException {
+        return findByKey(KEY_CUSTOMER + ":" + afm, k -> k.hasCustomer(afm), r -> r.getCustomerAfm().equals(afm));
+    }
+
+    /** Όρια των αρχειοθετημένων ενοικιάσεων του αυτοκινήτου, ή null αν δεν έχει καμία. */
+    synchronized ArchiveBounds boundsForCar(int carId) throws IOException {
+        return bounds(k -> k.hasCar(carId));
+    }
+
+    /** Όρια των αρχειοθετημένων ενοικιάσεων του πελάτη, ή null αν δεν έχει καμία. */
+    synchronized ArchiveBounds boundsForCustomer(String afm) throws IOException {
+        return bounds(k -> k.hasCustomer(afm));
+    }
+
+    synchronized Rental findById(long rentalId) throws IOException {
+        for (Map.Entry<YearMonth, Partition> e : partitions().entrySet()) {
+            Partition p = e.getValue();
+            if (rentalId < p.minId || rentalId > p.maxId) continue;
+            for (Rental r : partition(e.getKey())) {
+                if (r.getRentalId() == rentalId) return r;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Προσθήκη ολοκληρωμένων ενοικιάσεων στους μήνες τους. Idempotent (κλειδί το rentalId),
+     * ώστε μια επανάληψη μετά από crash πριν ξαναγραφτεί το rentals.csv να μη διπλασιάζει εγγραφές.
+     */
+    synchronized void add(List<Rental> completed) throws IOException {
+        if (completed.isEmpty()) return;
+        NavigableMap<YearMonth, List<Rental>> byMonth = new TreeMap<>();
+        for (Rental r : completed) {
+            byMonth.computeIfAbsent(YearMonth.from(r.getStartDate()), k -> new ArrayList<>()).add(r);
+        }
+        Files.createDirectories(dir);
+        NavigableMap<YearMonth, Partition> known = partitions();
+        for (Map.Entry<YearMonth, List<Rental>> e : byMonth.entrySet()) {
+            YearMonth month = e.getKey();
+            // an existing file is merged even if the manifest does not list it yet (crash before the manifest write)
+            Map<Long, Rental> merged = new TreeMap<>();
+            if (Files.exists(file(month))) {
+                for (Rental r : partition(month)) merged.put(r.getRentalId(), r);
+            }
+            for (Rental r : e.getValue()) merged.put(r.getRentalId(), r);
+            List<Rental> rows = Collections.unmodifiableList(new ArrayList<>(merged.values()));
+
+            List<String> lines = new ArrayList<>(rows.size() + 1);
+            lines.add(DataStore.RENTAL_HEADER);
+            LocalDate lastEnd = null;
+            for (Rental r : rows) {
+                lines.add(DataStore.rentalToCsv(r));
+                if (lastEnd == null || r.getEndDate().isAfter(lastEnd)) lastEnd = r.getEndDate();
+            }
+            WriteBehind.writeFile(file(month), lines, true);
+            PartitionKeys monthKeys = PartitionKeys.of(rows);
+            writeKeys(month, monthKeys);
+            keys.put(month, monthKeys);
+            known.put(month, new Partition(rows.size(), rows.get(0).getRentalId(), rows.get(rows.size() - 1).getRentalId(), lastEnd));
+            cache.put(month, rows);
+        }
+        writeManifest();
+        byKey.clear();
+    }
+
+    // ---------------- Internals ----------------
+
+    private Path file(YearMonth month) {
+        return dir.resolve("rentals-" + month + ".csv");
+    }
+
+    private List<Rental> findByKey(String cacheKey, Predicate<PartitionKeys> has, Predicate<Rental> filter) throws IOException {
+        List<Rental> found = byKey.get(cacheKey);
+        if (found != null) return found;
+        List<Rental> out = new ArrayList<>();
+        for (YearMonth month : partitions().keySet()) {
+            if (!has.test(keys(month))) continue;
+            List<Rental> cached = cache.get(month);
+            if (cached != null) {
+                for (Rental r : cached) if (filter.test(r)) out.add(r);
+            } else {
+                out.addAll(CsvReader.readAll(file(month), row -> {
+                    Rental r = DataStore.RENTAL_ROW.map(row);
+                    return r != null && filter.test(r) ? r : null;
+                }));
+            }
+        }
+        found = Collections.unmodifiableList(out);
+        byKey.put(cacheKey, found);
+        return found;
+    }
+
+    private ArchiveBounds bounds(Predicate<PartitionKeys> has) throws IOException {
+        YearMonth first = null;
+        YearMonth last = null;
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        LocalDate lastEnd = null;
+        for (Map.Entry<YearMonth, Partition> e : partitions().entrySet()) {
+            if (!has.test(keys(e.getKey()))) continue;
+            Partition p = e.getValue();
+            if (first == null) first = e.getKey();
+            last = e.getKey();
+            minId = Math.min(minId, p.minId);
+            maxId = Math.max(maxId, p.maxId);
+            if (lastEnd == null || p.lastEnd.isAfter(lastEnd)) lastEnd = p.lastEnd;
+        }
+        if (first == null) return null;
+        return new ArchiveBounds(minId, maxId, first.atDay(1), last.atEndOfMonth(), lastEnd);
+    }
+
+    private Path keysFile(YearMonth month) {
+        return dir.resolve("rentals-" + month + ".keys");
+    }
+
+    private PartitionKeys keys(YearMonth month) throws IOException {
+        PartitionKeys k = keys.get(month);
+        if (k != null) return k;
+        if (Files.exists(keysFile(month))) {
+            List<Integer> cars = new ArrayList<>();
+            List<String> afms = new ArrayList<>();
+            try (CsvReader row = CsvReader.open(keysFile(month))) {
+                if (row.next()) {
+                    while (row.next()) {
+                        if (row.fieldCount() < 2) continue;
+                        if (row.fieldEquals(0, KEY_CAR)) cars.add(row.getInt(1));
+                        else if (row.fieldEquals(0, KEY_CUSTOMER)) afms.add(row.getString(1));
+                    }
+                }
+            }
+            int[] carIds = new int[cars.size()];
+            for (int i = 0; i < carIds.length; i++) carIds[i] = cars.get(i);
+            Arrays.sort(carIds);
+            String[] afmKeys = afms.toArray(new String[0]);
+            Arrays.sort(afmKeys);
+            k = new PartitionKeys(carIds, afmKeys);
+        } else {
+            // a month archived before the key files existed: derive them once
+            k = PartitionKeys.of(partition(month));
+            writeKeys(month, k);
+        }
+        keys.put(month, k);
+        return k;
+    }
+
+    private void writeKeys(YearMonth month, PartitionKeys k) throws IOException {
+        List<String> lines = new ArrayList<>(k.carIds.length + k.afms.length + 1);
+        lines.add(KEYS_HEADER);
+        for (int id : k.carIds) lines.add(KEY_CAR + "," + id);
+        for (String afm : k.afms) lines.add(KEY_CUSTOMER + "," + CsvUtil.esc(afm));
+        WriteBehind.writeFile(keysFile(month), lines, true);
+    }
+
+    private List<Rental> partition(YearMonth month) throws IOException {
+        List<Rental> rows = cache.get(month);
+        if (rows == null) {
+            rows = Files.exists(file(month))
+                    ? Collections.unmodifiableList(CsvReader.readAll(file(month), DataStore.RENTAL_ROW))
+                    : Collections.<Rental>emptyList();
+            cache.put(month, rows);
+        }
+        return rows;
+    }
+
+    private NavigableMap<YearMonth, Partition> partitions() throws IOException {
+        if (partitions != null) return partitions;
+        NavigableMap<YearMonth, Partition> read = new TreeMap<>();
+        if (Files.exists(manifest)) {
+            try (CsvReader row = CsvReader.open(manifest)) {
+                if (row.next()) {
+                    while (row.next()) {
+                        if (row.fieldCount() < 5) continue;
+                        read.put(YearMonth.parse(row.getString(0)),
+                                new Partition(row.getInt(1), row.getLong(2), row.getLong(3), row.getDate(4)));
+                    }
+                }
+            }
+        }
+        partitions = read;
+        return partitions;
+    }
+
+    private void writeManifest() throws IOException {
+        List<String> lines = new ArrayList<>(partitions.size() + 1);
+        lines.add(MANIFEST_HEADER);
+        for (Map.Entry<YearMonth, Partition> e : partitions.entrySet()) {
+            Partition p = e.getValue();
+            lines.add(e.getKey() + "," + p.count + "," + p.minId + "," + p.maxId + "," + p.lastEnd);
+        }
+        WriteBehind.writeFile(manifest, lines, true);
+    }
+}
@@ -0,0 +1,214 @@
+package api.storage;
+
+import api.model.Car;
+import api.model.CarStatus;
+import api.model.Customer;
+import api.model.Employee;
+import api.model.Rental;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot όλων των οντοτήτων για γρήγορη εκκίνηση.
+ * <pre>
+ * magic, version
+ * fingerprint των CSV/journal από τα οποία προήλθε (μέγεθος + χρόνος τροποποίησης)
+ * πλήθος εγγραφών journal
+ * λεξικό strings
+ * employees, cars, customers, rentals (strings ως δείκτες στο λεξικό,
+ *                                      ημερομηνίες ως epoch days, κατάσταση ως ordinal)
+ * CRC32 όλων των παραπάνω
+ * </pre>
+ * Τα CSV παραμένουν η πηγή αλήθειας· αν το snapshot λείπει, είναι κατεστραμμένο ή
+ * δεν αντιστοιχεί στα τρέχοντα αρχεία, επιστρέφεται null και γίνεται φόρτωση από CSV.
+ */
+final class SnapshotFile {
+    private static final int MAGIC = 0x43525331; // "CRS1"
+    private static final int VERSION = 1;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private SnapshotFile() {}
+
+    /** Δεδομένα + πλήθος εγγραφών journal που είχαν εφαρμοστεί όταν γράφτηκε το snapshot. */
+    static final class Contents {
+        final LoadedData data;
+        final int journalEntries;
+
+        Contents(LoadedData data, int journalEntries) {
+            this.data = data;
+            this.journalEntries = journalEntries;
+        }
+    }
+
+    static Contents read(Path file, long[] fingerprint) {
+        try {
+            if (!Files.exists(file)) return null;
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+            int bodyLen = in.limit() - Long.BYTES;
+            if (bodyLen < 8) return null;
+
+            CRC32 crc = new CRC32();
+            crc.update(in.array(), 0, bodyLen);
+            if (crc.getValue() != in.getLong(bodyLen)) return null;
+            in.limit(bodyLen);
+
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) return null;
+            int fpLen = in.getInt();
+            if (fpLen != fingerprint.length) return null;
+            for (long expected : fingerprint) if (in.getLong() != expected) return null;
+            int journalEntries = in.getInt();
+
+            String[] dict = new String[in.getInt()];
+            for (int i = 0; i < dict.length; i++) {
+                byte[] b = new byte[in.getInt()];
+                in.get(b);
+                dict[i] = new String(b, StandardCharsets.UTF_8);
+            }
+
+            int employeesCount = in.getInt();
+            List<Employee> employees = new ArrayList<>(employeesCount);
+            for (int i = 0; i < employeesCount; i++) {
+                employees.add(new Employee(str(dict, in), str(dict, in), str(dict, in), str(dict, in)));
+            }
+
+            CarStatus[] statuses = CarStatus.values();
+            int carsCount = in.getInt();
+            List<Car> cars = new ArrayList<>(carsCount);
+            for (int i = 0; i < carsCount; i++) {
+                int id = in.getInt();
+                String plate = str(dict, in), brand = str(dict, in), type = str(dict, in), model = str(dict, in);
+                int year = in.getInt();
+                String color = str(dict, in);
+                cars.add(new Car(id, plate, brand, type, model, year, color, statuses[in.get()]));
+            }
+
+            int customersCount = in.getInt();
+            List<Customer> customers = new ArrayList<>(customersCount);
+            for (int i = 0; i < customersCount; i++) {
+                customers.add(new Customer(str(dict, in), str(dict, in), str(dict, in), str(dict, in)));
+            }
+
+            int rentalsCount = in.getInt();
+            List<Rental> rentals = new ArrayList<>(rentalsCount);
+            for (int i = 0; i < rentalsCount; i++) {
+                long rentalId = in.getLong();
+                int carId = in.getInt();
+                String afm = str(dict, in), emp = str(dict, in);
+                LocalDate start = date(in.getInt()), end = date(in.getInt());
+                boolean returned = in.get() != 0;
+                rentals.add(new Rental(rentalId, carId, afm, emp, start, end, returned, date(in.getInt())));
+            }
+            if (in.hasRemaining()) return null;
+
+            return new Contents(new LoadedData(employees, cars, customers, rentals, true), journalEntries);
+        } catch (IOException | RuntimeException corrupt) {
+            return null;
+        }
+    }
+
+    static void write(Path file, long[] fingerprint, int journalEntries, List<Employee> employees, List<Car> cars,
+                      List<Customer> customers, List<Rental> rentals) throws IOException {
+        Map<String, Integer> dict = new HashMap<>();
+        List<String> dictOrder = new ArrayList<>();
+        for (Employee e : employees) intern(dict, dictOrder, e.getFullName(), e.getUsername(), e.getEmail(), e.getPassword());
+        for (Car c : cars) intern(dict, dictOrder, c.getPlate(), c.getBrand(), c.getType(), c.getModel(), c.getColor());
+        for (Customer c : customers) intern(dict, dictOrder, c.getAfm(), c.getFullName(), c.getPhone(), c.getEmail());
+        for (Rental r : rentals) intern(dict, dictOrder, r.getCustomerAfm(), r.getEmployeeUsername());
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (OutputStream raw = Files.newOutputStream(tmp)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(raw, crc), 64 * 1024));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(fingerprint.length);
+            for (long f : fingerprint) out.writeLong(f);
+            out.writeInt(journalEntries);
+
+            out.writeInt(dictOrder.size());
+            for (String s : dictOrder) {
+                byte[] b = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(b.length);
+                out.write(b);
+            }
+
+            out.writeInt(employees.size());
+            for (Employee e : employees) {
+                refs(out, dict, e.getFullName(), e.getUsername(), e.getEmail(), e.getPassword());
+            }
+
+            out.writeInt(cars.size());
+            for (Car c : cars) {
+                out.writeInt(c.getId());
+                refs(out, dict, c.getPlate(), c.getBrand(), c.getType(), c.getModel());
+                out.writeInt(c.getYear());
+                refs(out, dict, c.getColor());
+                out.writeByte(c.getStatus().ordinal());
+            }
+
+            out.writeInt(customers.size());
+            for (Customer c : customers) {
+                refs(out, dict, c.getAfm(), c.getFullName(), c.getPhone(), c.getEmail());
+            }
+
+            out.writeInt(rentals.size());
+            for (Rental r : rentals) {
+                out.writeLong(r.getRentalId());
+                out.writeInt(r.getCarId());
+                refs(out, dict, r.getCustomerAfm(), r.getEmployeeUsername());
+                out.writeInt(epochDay(r.getStartDate()));
+                out.writeInt(epochDay(r.getEndDate()));
+                out.writeByte(r.isReturned() ? 1 : 0);
+                out.writeInt(epochDay(r.getActualReturnDate()));
+            }
+            out.flush();
+
+            // trailer is not part of the checksum
+            new DataOutputStream(raw).writeLong(crc.getValue());
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ---------------- Helpers ----------------
+
+    private static String str(String[] dict, ByteBuffer in) {
+        int ref = in.getInt();
+        return ref < 0 ? null : dict[ref];
+    }
+
+    private static LocalDate date(int epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static int epochDay(LocalDate d) {
+        return d == null ? NO_DATE : (int) d.toEpochDay();
+    }
+
+    private static void intern(Map<String, Integer> dict, List<String> order, String... values) {
+        for (String v : values) {
+            if (v != null && !dict.containsKey(v)) {
+                dict.put(v, order.size());
+                order.add(v);
+            }
+        }
+    }
+
+    private static void refs(DataOutputStream out, Map<String, Integer> dict, String... values) throws IOException {
+        for (String v : values) out.writeInt(v == null ? -1 : dict.get(v));
+    }
+}
@@ -0,0 +1,234 @@
+package api.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit των εγγραφών του {@link DataStore}.
+ * Οι πλήρεις εγγραφές αρχείων συγχωνεύονται (μόνο η τελευταία ανά αρχείο γράφεται) και οι
+ * γραμμές append ανά αρχείο μαζεύονται σε μία εγγραφή ανά flush.
+ * Με {@link Durability#EVERY_COMMIT} κάθε αλλαγή γράφεται αμέσως στο thread του καλούντος·
+ * στους άλλους τρόπους ένα thread παρασκηνίου κάνει flush ανά διάστημα και το {@link #close()}
+ * (ή, αν δεν το καλεί ο κάτοχος, ένα shutdown hook) αδειάζει ό,τι εκκρεμεί.
+ * Μετά το {@link #close()} δεν υπάρχει thread παρασκηνίου, οπότε κάθε νέα αλλαγή γράφεται αμέσως.
+ * Μια αποτυχημένη εγγραφή ξαναμπαίνει στην ουρά και επαναλαμβάνεται στο επόμενο flush· σφάλματα
+ * αναφέρονται μόνο από τα {@link #flush()}/{@link #close()}, ποτέ σε όποιον απλώς προσθέτει δουλειά.
+ */
+final class WriteBehind implements Closeable {
+
+    /** Πλήρης εγγραφή αρχείου· αν resetsLog != null, το αντίστοιχο log αδειάζει μετά την εγγραφή. */
+    private static final class Rewrite {
+        final Path resetsLog;
+        final List<String> lines;
+
+        Rewrite(Path resetsLog, List<String> lines) {
+            this.resetsLog = resetsLog;
+            this.lines = lines;
+        }
+    }
+
+    private final Durability durability;
+    private final Object lock = new Object();
+    private final Object flushLock = new Object();
+    private final Map<Path, Rewrite> rewrites = new LinkedHashMap<>();
+    private final Map<Path, List<String>> appends = new LinkedHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private boolean failing; // background flushes are failing; logged once per streak
+    private boolean closed;
+
+    /**
+     * @param closeOnExit αν κανείς άλλος δεν κλείνει το store, ένα shutdown hook κάνει {@link #close()}·
+     *                    όποιος το κλείνει μόνος του (π.χ. ο server, μετά τα τελευταία αιτήματα) δίνει false
+     */
+    WriteBehind(Durability durability, long flushIntervalMs, boolean closeOnExit) {
+        this.durability = durability;
+        if (durability == Durability.EVERY_COMMIT) {
+            this.flusher = null;
+            return;
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "datastore-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, flushIntervalMs);
+        flusher.scheduleWithFixedDelay(this::backgroundFlush, interval, interval, TimeUnit.MILLISECONDS);
+        if (!closeOnExit) return;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                System.err.println("DataStore: pending writes lost: " + e.getMessage());
+            }
+        }, "datastore-shutdown"));
+    }
+
+    /**
+     * Προγραμματίζει πλήρη εγγραφή του target. Οι γραμμές φτιάχνονται από τον καλούντα, όσο
+     * κρατά τα locks του, ώστε το thread παρασκηνίου να μην αγγίζει ποτέ τα (μεταβλητά) αντικείμενα.
+     */
+    void rewrite(Path target, Path resetsLog, List<String> lines) throws IOException {
+        boolean now;
+        synchronized (lock) {
+            rewrites.remove(target); // keep submission order of the latest version
+            rewrites.put(target, new Rewrite(resetsLog, lines));
+            // everything appended so far is already contained in the rewritten file
+            if (resetsLog != null) appends.remove(resetsLog);
+            now = flusher == null || closed;
+        }
+        if (now) flush(true);
+    }
+
+    void append(Path target, List<String> lines) throws IOException {
+        boolean now;
+        synchronized (lock) {
+            appends.computeIfAbsent(target, k -> new ArrayList<>()).addAll(lines);
+            now = flusher == null || closed;
+        }
+        if (now) flush(true);
+    }
+
+    /** Γράφει αμέσως ό,τι εκκρεμεί (με fsync εκτός από τον τρόπο ON_SHUTDOWN). */
+    void flush() throws IOException {
+        flush(durability != Durability.ON_SHUTDOWN);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+        }
+        if (flusher != null) flusher.shutdown();
+        flush(true);
+    }
+
+    // ---------------- Internals ----------------
+
+    private void backgroundFlush() {
+        try {
+            flush();
+            failing = false;
+        } catch (IOException e) {
+            // the batch was requeued: the next flush retries it, and an explicit flush()/close() reports it
+            if (!failing) System.err.println("DataStore: background flush failed, retrying: " + e.getMessage());
+            failing = true;
+        }
+    }
+
+    private void flush(boolean force) throws IOException {
+        synchronized (flushLock) {
+            Map<Path, Rewrite> rw;
+            Map<Path, List<String>> ap;
+            synchronized (lock) {
+                if (rewrites.isEmpty() && appends.isEmpty()) return;
+                rw = new LinkedHashMap<>(rewrites);
+                ap = new LinkedHashMap<>(appends);
+                rewrites.clear();
+                appends.clear();
+            }
+            try {
+                // compactions first: appends taken after them belong on top of the fresh file
+                for (Map.Entry<Path, Rewrite> e : rw.entrySet()) {
+                    if (e.getValue().resetsLog == null) continue;
+                    writeFile(e.getKey(), e.getValue().lines, force);
+                    truncate(e.getValue().resetsLog, force);
+                }
+                for (Map.Entry<Path, List<String>> e : ap.entrySet()) {
+                    appendFile(e.getKey(), e.getValue(), force);
+                }
+                for (Map.Entry<Path, Rewrite> e : rw.entrySet()) {
+                    if (e.getValue().resetsLog != null) continue;
+                    writeFile(e.getKey(), e.getValue().lines, force);
+                }
+            } catch (IOException | RuntimeException e) {
+                requeue(rw, ap);
+                throw e instanceof IOException ? (IOException) e : new IOException(e);
+            }
+        }
+    }
+
+    /**
+     * Επαναφορά μετά από αποτυχία· οι εγγραφές είναι idempotent, οπότε επανάληψη είναι ασφαλής.
+     * Γραμμές append για ένα log που στο μεταξύ μηδενίζεται από νεότερο rewrite απορρίπτονται:
+     * περιέχονται ήδη στο νέο αρχείο και, γραμμένες πάνω του, θα ξαναζωντάνευαν παλιές εκδόσεις.
+     */
+    private void requeue(Map<Path, Rewrite> rw, Map<Path, List<String>> ap) {
+        synchronized (lock) {
+            Set<Path> resetSince = new HashSet<>();
+            for (Rewrite r : rewrites.values()) {
+                if (r.resetsLog != null) resetSince.add(r.resetsLog);
+            }
+            for (Map.Entry<Path, Rewrite> e : rw.entrySet()) {
+                if (!rewrites.containsKey(e.getKey())) rewrites.put(e.getKey(), e.getValue());
+            }
+            for (Map.Entry<Path, List<String>> e : ap.entrySet()) {
+                if (resetSince.contains(e.getKey())) continue;
+                List<String> newer = appends.remove(e.getKey());
+                List<String> merged = new ArrayList<>(e.getValue());
+                if (newer != null) merged.addAll(newer);
+                appends.put(e.getKey(), merged);
+            }
+        }
+    }
+
+    /** Atomic αντικατάσταση του αρχείου (προσωρινό αρχείο + move), με fsync αν force. */
+    static void writeFile(Path target, List<String> lines, boolean force) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeLines(ch, lines);
+            if (force) ch.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void appendFile(Path target, List<String> lines, boolean force) throws IOException {
+        try (FileChannel ch = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            writeLines(ch, lines);
+            if (force) ch.force(true);
+        }
+    }
+
+    private static void truncate(Path target, boolean force) throws IOException {
+        try (FileChannel ch = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            ch.truncate(0);
+            if (force) ch.force(true);
+        }
+    }
+
+    private static void writeLines(FileChannel ch, List<String> lines) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) {
+            sb.append(line).append(System.lineSeparator());
+            if (sb.length() >= 64 * 1024) {
+                writeFully(ch, sb);
+                sb.setLength(0);
+            }
+        }
+        writeFully(ch, sb);
+    }
+
+    private static void writeFully(FileChannel ch, CharSequence chars) throws IOException {
+        ByteBuffer b = StandardCharsets.UTF_8.encode(CharBuffer.wrap(chars));
+        while (b.hasRemaining()) ch.write(b);
+    }
+}
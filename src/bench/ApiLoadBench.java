@@ -0,0 +1,135 @@
+package bench;
+
+import api.service.CarRentalSystem;
+import api.storage.DataStore;
+import api.storage.Durability;
+import server.RentalApiServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Φορτίο στον HTTP server από εκατοντάδες ταυτόχρονους clients στο localhost: κάθε client έχει
+ * δική του συνεδρία και εναλλάσσει αναζητήσεις αυτοκινήτων/πελατών με ενοικίαση και επιστροφή
+ * δικού του αυτοκινήτου. Αναφέρει αιτήματα/s και εκατοστημόρια latency ανά είδος αιτήματος.
+ * Χρήση (από άδειο κατάλογο): {@code java bench.ApiLoadBench [clients=200] [requestsPerClient=100]}
+ */
+public class ApiLoadBench {
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+    private static final Pattern RENTAL_ID = Pattern.compile("\"rentalId\":(\\d+)");
+    private static final String[] BRANDS = { "toy", "hon", "for", "fia", "ope" };
+    private static final String[] NAMES = { "παπα", "ιωαν", "γεωρ", "νικο", "μαυρ" };
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int perClient = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        BenchData.freshDataDir(Math.max(5000, clients), 20000, 50000);
+        DataStore store = new DataStore(Durability.INTERVAL, 200, false);
+        CarRentalSystem system = new CarRentalSystem(store);
+        RentalApiServer server = new RentalApiServer(system, new InetSocketAddress("127.0.0.1", 0));
+        server.start();
+        String base = "http://127.0.0.1:" + server.getPort() + "/api/";
+
+        // one read in four is followed by a rent and a return of the client's own car
+        long[] reads = new long[clients * perClient];
+        long[] writes = new long[clients * perClient];
+        AtomicInteger readCount = new AtomicInteger();
+        AtomicInteger writeCount = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        LocalDate today = LocalDate.now();
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<?>> done = new ArrayList<>();
+        long t0 = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int carId = c + 1;
+            String afm = BenchData.afm(c);
+            done.add(pool.submit(() -> {
+                String token = match(TOKEN, call("POST", base + "login", null,
+                        "{\"username\":\"jsmith\",\"password\":\"password1\"}"));
+                for (int i = 0; i < perClient; i++) {
+                    String url = i % 2 == 0
+                            ? base + "cars?brand=" + BRANDS[i % BRANDS.length]
+                            : base + "customers?limit=20&name=" + URLEncoder.encode(NAMES[i % NAMES.length], "UTF-8");
+                    long s = System.nanoTime();
+                    if (call("GET", url, token, null) == null) errors.incrementAndGet();
+                    reads[readCount.getAndIncrement()] = System.nanoTime() - s;
+                    if (i % 4 != 3) continue;
+
+                    s = System.nanoTime();
+                    String rental = call("POST", base + "rentals", token, "{\"carId\":" + carId + ",\"customerAfm\":\"" + afm
+                            + "\",\"start\":\"" + today + "\",\"end\":\"" + today.plusDays(1) + "\"}");
+                    writes[writeCount.getAndIncrement()] = System.nanoTime() - s;
+                    if (rental == null) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                    s = System.nanoTime();
+                    if (call("POST", base + "rentals/" + match(RENTAL_ID, rental) + "/return", token, null) == null) errors.incrementAndGet();
+                    writes[writeCount.getAndIncrement()] = System.nanoTime() - s;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : done) f.get();
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        pool.shutdown();
+
+        int total = readCount.get() + writeCount.get();
+        System.out.printf("%d clients, %d requests in %.2f s: %.0f req/s, %d errors%n",
+                clients, total, seconds, total / seconds, errors.get());
+        System.out.println("  reads  (" + readCount.get() + "): " + BenchData.percentiles(Arrays.copyOf(reads, readCount.get())));
+        System.out.println("  writes (" + writeCount.get() + "): " + BenchData.percentiles(Arrays.copyOf(writes, writeCount.get())));
+
+        server.stop(5);
+        system.close();
+    }
+
+    /** Το σώμα της απάντησης, ή null για status εκτός 2xx. */
+    private static String call(String method, String url, String token, String body) throws IOException {
+        HttpURLConnection c = (HttpURLConnection) new URL(url).openConnection();
+        c.setRequestMethod(method);
+        if (token != null) c.setRequestProperty("Authorization", "Bearer " + token);
+        if (body != null) {
+            c.setDoOutput(true);
+            try (OutputStream out = c.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = c.getResponseCode();
+        // read the body either way so the connection goes back to the keep-alive pool
+        InputStream in = status < 400 ? c.getInputStream() : c.getErrorStream();
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        if (in != null) {
+            try (InputStream is = in) {
+                byte[] b = new byte[8192];
+                for (int n; (n = is.read(b)) > 0; ) buf.write(b, 0, n);
+            }
+        }
+        return status / 100 == 2 ? new String(buf.toByteArray(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static String match(Pattern p, String s) throws IOException {
+        Matcher m = p.matcher(s == null ? "" : s);
+        if (!m.find()) throw new IOException("Απρόσμενη απάντηση: " + s);
+        return m.group(1);
+    }
+}
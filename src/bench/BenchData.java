@@ -0,0 +1,128 @@
+package bench;
+
+import api.storage.PathsConfig;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Κοινά βοηθήματα των benchmarks: συνθετικά δεδομένα στο data/ του τρέχοντος καταλόγου και
+ * εκατοστημόρια χρόνων. Τα benchmarks τρέχουν από άδειο κατάλογο (π.χ. {@code mkdir /tmp/b && cd /tmp/b})·
+ * ένα data/ που δεν έφτιαξε benchmark δεν αγγίζεται ποτέ.
+ */
+final class BenchData {
+    private static final Path MARKER = PathsConfig.DATA_DIR.resolve(".bench");
+    private static final String[] BRANDS = { "Toyota", "Honda", "Ford", "Fiat", "Opel", "Peugeot", "Renault", "Skoda", "Hyundai", "Kia" };
+    private static final String[] MODELS = { "Corolla", "Civic", "Focus", "Panda", "Corsa", "208", "Clio", "Octavia", "i20", "Rio" };
+    private static final String[] TYPES = { "Sedan", "Hatchback", "SUV", "Van" };
+    private static final String[] COLORS = { "Λευκό", "Μαύρο", "Ασημί", "Μπλε", "Κόκκινο" };
+    private static final String[] FIRST = { "Γιώργος", "Μαρία", "Νίκος", "Ελένη", "Κώστας", "Σοφία", "Δημήτρης", "Αικατερίνη" };
+    private static final String[] LAST = { "Παπαδόπουλος", "Ιωάννου", "Νικολάου", "Γεωργίου", "Οικονόμου", "Μαυρίδης", "Αλεξίου" };
+    private static final String PLATE_LETTERS = "ΑΒΕΖΗΙΚΜΝΟΡΤΥΧ";
+
+    private BenchData() {}
+
+    /**
+     * Νέο data/ με {@code cars} αυτοκίνητα (όλα διαθέσιμα), {@code customers} πελάτες και
+     * {@code rentals} ολοκληρωμένες ενοικιάσεις των τελευταίων 80 ημερών (μένουν στη μνήμη, δεν αρχειοθετούνται).
+     */
+    static void freshDataDir(int cars, int customers, int rentals) throws IOException {
+        if (Files.exists(PathsConfig.DATA_DIR)) {
+            if (!Files.exists(MARKER)) {
+                throw new IOException("Το " + PathsConfig.DATA_DIR.toAbsolutePath()
+                        + " δεν δημιουργήθηκε από benchmark· τρέξτε το από άδειο κατάλογο.");
+            }
+            try (Stream<Path> all = Files.walk(PathsConfig.DATA_DIR)) {
+                for (Path p : (Iterable<Path>) all.sorted(Comparator.reverseOrder())::iterator) Files.delete(p);
+            }
+        }
+        Files.createDirectories(PathsConfig.DATA_DIR);
+        Files.createFile(MARKER);
+        Random rnd = new Random(42);
+
+        write(PathsConfig.USERS, Arrays.asList(
+                "name,surname,username,email,password",
+                "John,Smith,jsmith,john.smith@test.com,password1",
+                "Mary,Jones,mjones,mary.jones@test.com,password2"));
+        try (BufferedWriter w = Files.newBufferedWriter(PathsConfig.VEHICLES, StandardCharsets.UTF_8)) {
+            w.write("id,plate,brand,type,model,year,color,status\n");
+            for (int id = 1; id <= cars; id++) {
+                int b = rnd.nextInt(BRANDS.length);
+                w.write(id + "," + plate(id) + "," + BRANDS[b] + "," + TYPES[rnd.nextInt(TYPES.length)] + ","
+                        + MODELS[b] + "," + (2012 + rnd.nextInt(13)) + "," + COLORS[rnd.nextInt(COLORS.length)] + ",Διαθέσιμο\n");
+            }
+        }
+        try (BufferedWriter w = Files.newBufferedWriter(PathsConfig.CUSTOMERS, StandardCharsets.UTF_8)) {
+            w.write("afm,fullName,phone,email\n");
+            for (int i = 0; i < customers; i++) {
+                w.write(afm(i) + "," + FIRST[rnd.nextInt(FIRST.length)] + " " + LAST[rnd.nextInt(LAST.length)] + ","
+                        + (6900000000L + i) + ",c" + i + "@test.com\n");
+            }
+        }
+        LocalDate today = LocalDate.now();
+        try (BufferedWriter w = Files.newBufferedWriter(PathsConfig.RENTALS, StandardCharsets.UTF_8)) {
+            w.write("rentalId,carId,customerAfm,employeeUsername,startDate,endDate,returned,actualReturnDate\n");
+            for (int id = 1; id <= rentals; id++) {
+                LocalDate start = today.minusDays(9 + rnd.nextInt(72));
+                LocalDate end = start.plusDays(1 + rnd.nextInt(7));
+                w.write(id + "," + (1 + rnd.nextInt(cars)) + "," + afm(rnd.nextInt(customers)) + ",jsmith,"
+                        + start + "," + end + ",true," + end + "\n");
+            }
+        }
+        write(PathsConfig.META, Arrays.asList("nextRentalId=" + (rentals + 1)));
+    }
+
+    /** Μοναδική πινακίδα για κάθε id, π.χ. ΑΒΕ0042. */
+    static String plate(int id) {
+        int letters = id / 10000;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            sb.append(PLATE_LETTERS.charAt(letters % PLATE_LETTERS.length()));
+            letters /= PLATE_LETTERS.length();
+        }
+        return sb.reverse().toString() + String.format("%04d", id % 10000);
+    }
+
+    static String afm(int i) {
+        return String.valueOf(100000000 + i);
+    }
+
+    /** "p50=… p95=… p99=… max=… ms" από χρόνους σε ns (ο πίνακας ταξινομείται). */
+    static String percentiles(long[] nanos) {
+        if (nanos.length == 0) return "no samples";
+        Arrays.sort(nanos);
+        return String.format("p50=%.2f p95=%.2f p99=%.2f max=%.2f ms",
+                at(nanos, 0.50), at(nanos, 0.95), at(nanos, 0.99), nanos[nanos.length - 1] / 1e6);
+    }
+
+    static double p99Millis(long[] sortedNanos) {
+        return at(sortedNanos, 0.99);
+    }
+
+    /** Συνολικός χρόνος GC της JVM ως τώρα, σε ms. */
+    static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) total += Math.max(0, gc.getCollectionTime());
+        return total;
+    }
+
+    private static double at(long[] sorted, double q) {
+        int i = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, i))] / 1e6;
+    }
+
+    private static void write(Path file, List<String> lines) throws IOException {
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,65 @@
+package bench;
+
+import api.model.Employee;
+import api.service.CarRentalSystem;
+import api.storage.DataStore;
+import api.storage.Durability;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Throughput και εκατοστημόρια latency του {@code rentCar} για κάθε {@link Durability}.
+ * Κάθε thread νοικιάζει δικά του αυτοκίνητα (καμία σύγκρουση), σε νέο data/ ανά πολιτική.
+ * Χρήση (από άδειο κατάλογο): {@code java bench.RentCarBench [threads=4] [rentalsPerThread=1000]}
+ */
+public class RentCarBench {
+    private static final long FLUSH_INTERVAL_MS = 200; // as in gui.Main and server.ServerMain
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        run(Durability.INTERVAL, threads, Math.min(perThread, 200), false); // JIT warm-up
+        for (Durability d : Durability.values()) run(d, threads, perThread, true);
+    }
+
+    private static void run(Durability durability, int threads, int perThread, boolean report) throws Exception {
+        BenchData.freshDataDir(threads * perThread, 1000, 0);
+        DataStore store = new DataStore(durability, FLUSH_INTERVAL_MS, false);
+        CarRentalSystem system = new CarRentalSystem(store);
+        Employee actor = system.authenticate("jsmith", "password1");
+        LocalDate today = LocalDate.now();
+
+        long[] latency = new long[threads * perThread];
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> done = new ArrayList<>();
+        long t0 = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int first = t * perThread;
+            done.add(pool.submit(() -> {
+                for (int i = first; i < first + perThread; i++) {
+                    long s = System.nanoTime();
+                    system.rentCar(actor, i + 1, BenchData.afm(i % 1000), today, today.plusDays(3));
+                    latency[i] = System.nanoTime() - s;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : done) f.get();
+        long elapsed = System.nanoTime() - t0;
+        pool.shutdown();
+
+        long c0 = System.nanoTime();
+        system.close();
+        long close = System.nanoTime() - c0;
+        if (!report) return;
+        System.out.printf("%-12s %d threads x %d: %.0f rentCar/s, %s, close %.1f ms%n",
+                durability, threads, perThread, latency.length / (elapsed / 1e9),
+                BenchData.percentiles(latency), close / 1e6);
+    }
+}
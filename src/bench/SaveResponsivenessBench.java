@@ -0,0 +1,107 @@
+package bench;
+
+import api.model.Employee;
+import api.service.AsyncCarRentalSystem;
+import api.service.CarRentalSystem;
+import api.storage.DataStore;
+import api.storage.Durability;
+import api.storage.PathsConfig;
+
+import javax.swing.*;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Απόκριση του EDT όσο ξαναγράφεται ένα rentals.csv μεγάλου μεγέθους. Ένα Swing Timer των 10 ms
+ * μετρά πόσο αργεί κάθε tick ενώ περνούν αρκετές ενοικιάσεις/επιστροφές ώστε να γίνει compaction
+ * του journal (πλήρης εγγραφή του αρχείου): πρώτα μέσω του {@link AsyncCarRentalSystem}, όπως τα
+ * panels, και μετά με κλήσεις απευθείας στο EDT, όπως πριν, για σύγκριση.
+ * Στο ίδιο διάστημα αναφέρεται και ο χρόνος των GC pauses, που σταματούν και το EDT ό,τι κι αν κάνει.
+ * Χρήση (από άδειο κατάλογο): {@code java -Xmx3g -Djava.awt.headless=true bench.SaveResponsivenessBench [rentals=1000000]}
+ */
+public class SaveResponsivenessBench {
+    private static final int TICK_MS = 10;
+    // rent+return pairs: 1040 journal entries, past the compaction threshold of 1000
+    private static final int PAIRS = 520;
+
+    public static void main(String[] args) throws Exception {
+        int rentals = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        BenchData.freshDataDir(2000, 1000, rentals);
+        long l0 = System.nanoTime();
+        CarRentalSystem system = new CarRentalSystem(new DataStore(Durability.INTERVAL, 200));
+        System.out.printf("loaded %d rentals in %.1f s%n", system.getRentals().size(), (System.nanoTime() - l0) / 1e9);
+        AsyncCarRentalSystem service = new AsyncCarRentalSystem(system);
+        system.login("jsmith", "password1");
+        Employee actor = system.getLoggedIn();
+        LocalDate today = LocalDate.now();
+
+        // through the facade: the EDT only submits and is free while the file is rewritten
+        measure("async facade (panels)", () -> {
+            List<CompletableFuture<Void>> done = new ArrayList<>(PAIRS);
+            for (int i = 0; i < PAIRS; i++) {
+                int carId = i % 2000 + 1;
+                done.add(service.rentCar(carId, BenchData.afm(i % 1000), today, today.plusDays(1))
+                        .thenCompose(r -> service.returnRental(r.getRentalId())));
+            }
+            return CompletableFuture.allOf(done.toArray(new CompletableFuture[0]));
+        });
+
+        // the old way: every mutation, and the compaction it triggers, on the EDT
+        measure("direct calls on the EDT", () -> {
+            for (int i = 0; i < PAIRS; i++) {
+                int carId = i % 2000 + 1;
+                system.returnRental(actor, system.rentCar(actor, carId, BenchData.afm(i % 1000), today, today.plusDays(1)).getRentalId());
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+
+        service.close();
+    }
+
+    private interface Work {
+        CompletableFuture<?> start() throws Exception;
+    }
+
+    private static void measure(String label, Work work) throws Exception {
+        FileTime before = Files.getLastModifiedTime(PathsConfig.RENTALS);
+        List<Long> lags = new ArrayList<>();
+        long[] last = { 0 };
+        Timer probe = new Timer(TICK_MS, e -> {
+            long now = System.nanoTime();
+            if (last[0] != 0) lags.add(Math.max(0, now - last[0] - TICK_MS * 1_000_000L));
+            last[0] = now;
+        });
+        SwingUtilities.invokeAndWait(probe::start);
+        Thread.sleep(200);
+
+        long gc0 = BenchData.gcMillis();
+        long t0 = System.nanoTime();
+        AtomicReference<CompletableFuture<?>> pending = new AtomicReference<>();
+        AtomicReference<Exception> failed = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                pending.set(work.start());
+            } catch (Exception e) {
+                failed.set(e);
+            }
+        });
+        if (failed.get() != null) throw failed.get();
+        pending.get().get();
+        long elapsed = System.nanoTime() - t0;
+        Thread.sleep(500); // let the writer flush the rewritten file
+        SwingUtilities.invokeAndWait(probe::stop);
+        long gc = BenchData.gcMillis() - gc0;
+
+        // the probe ran on the EDT and invokeAndWait(stop) orders its writes before this read
+        long[] lag = new long[lags.size()];
+        for (int i = 0; i < lag.length; i++) lag[i] = lags.get(i);
+        boolean rewritten = Files.getLastModifiedTime(PathsConfig.RENTALS).compareTo(before) > 0;
+        System.out.printf("%-26s %d rent+return in %.2f s, rentals.csv rewritten=%s (%d MB); EDT tick lag %s; GC pauses %d ms%n",
+                label, PAIRS, elapsed / 1e9, rewritten, Files.size(PathsConfig.RENTALS) >> 20, BenchData.percentiles(lag), gc);
+    }
+}
@@ -0,0 +1,97 @@
+package bench;
+
+import api.model.Car;
+import api.model.Rental;
+import api.service.CarRentalSystem;
+import api.storage.DataStore;
+import gui.util.DebouncedSearch;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Latency από το πλήκτρο ως το αποτέλεσμα στις live αναζητήσεις, σε μεγάλο στόλο. Για κάθε
+ * χαρακτήρα ενός κειμένου καλείται το {@link DebouncedSearch#trigger()} στο EDT, όπως από το
+ * DocumentListener των panels, με το ίδιο query που τρέχουν τα CarPanel και RentalPanel, και
+ * μετριέται ο χρόνος ως την παράδοση στο EDT, χωρίς την καθυστέρηση debounce. Στόχος: κάτω από 50 ms.
+ * Αναφέρεται και ο χρόνος των GC pauses κάθε σεναρίου, που μετρά μέσα στο latency.
+ * Χρήση (από άδειο κατάλογο): {@code java -Djava.awt.headless=true bench.SearchLatencyBench [cars=50000] [customers=100000] [rentals=300000]}
+ */
+public class SearchLatencyBench {
+    private static final long TARGET_MS = 50;
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) throws Exception {
+        int cars = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int customers = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int rentals = args.length > 2 ? Integer.parseInt(args[2]) : 300_000;
+        BenchData.freshDataDir(cars, customers, rentals);
+        CarRentalSystem system = new CarRentalSystem(new DataStore());
+        System.out.printf("%d cars, %d customers, %d rentals%n", system.getCars().size(), system.getCustomers().size(), system.getRentals().size());
+
+        String plate = BenchData.plate(cars / 2);
+        String afm = BenchData.afm(customers / 3);
+        boolean met = true;
+        met &= typing("cars: plate", plate, text -> () -> system.searchCars("", text, "", "", "", null));
+        met &= typing("cars: brand", "Hyundai", text -> () -> system.searchCars(text, "", "", "", "", null));
+        met &= typing("cars: model, lower case", "octavia", text -> () -> system.searchCars("", "", text, "", "", null));
+        met &= typing("rentals: customer afm", afm, text -> () -> system.searchRentals(text, ""));
+        met &= typing("rentals: plate", plate, text -> () -> system.searchRentals("", text));
+        System.out.println("target " + TARGET_MS + " ms at p99: " + (met ? "met" : "MISSED"));
+    }
+
+    private interface QueryFor<T> {
+        Callable<T> of(String text);
+    }
+
+    /** Πληκτρολογεί το κείμενο γράμμα-γράμμα, ROUNDS φορές· true αν το p99 είναι εντός στόχου. */
+    private static <T> boolean typing(String label, String text, QueryFor<List<T>> query) throws Exception {
+        AtomicReference<String> typed = new AtomicReference<>("");
+        AtomicReference<CountDownLatch> delivered = new AtomicReference<>();
+        long[] triggeredAt = { 0 };
+        List<Long> samples = new ArrayList<>();
+        int[] hits = { 0 };
+        Supplier<Callable<List<T>>> prepare = () -> query.of(typed.get());
+        AtomicReference<DebouncedSearch<List<T>>> search = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> search.set(new DebouncedSearch<>(DebouncedSearch.DEFAULT_DELAY_MILLIS, prepare, (found, ms) -> {
+            samples.add(System.nanoTime() - triggeredAt[0] - TimeUnit.MILLISECONDS.toNanos(DebouncedSearch.DEFAULT_DELAY_MILLIS));
+            hits[0] = found.size();
+            delivered.get().countDown();
+        })));
+
+        // round -1 warms up the JIT and is not counted
+        long gc0 = 0;
+        for (int round = -1; round < ROUNDS; round++) {
+            if (round == 0) {
+                samples.clear();
+                gc0 = BenchData.gcMillis();
+            }
+            for (int i = 1; i <= text.length(); i++) {
+                String prefix = text.substring(0, i);
+                CountDownLatch latch = new CountDownLatch(1);
+                delivered.set(latch);
+                SwingUtilities.invokeAndWait(() -> {
+                    typed.set(prefix);
+                    triggeredAt[0] = System.nanoTime();
+                    search.get().trigger();
+                });
+                // a pause longer than the debounce, so every keystroke runs its own query
+                if (!latch.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("no result for " + prefix);
+            }
+        }
+
+        long gc = BenchData.gcMillis() - gc0;
+        long[] lat = new long[samples.size()];
+        for (int i = 0; i < lat.length; i++) lat[i] = Math.max(0, samples.get(i));
+        String stats = BenchData.percentiles(lat);
+        boolean ok = BenchData.p99Millis(lat) < TARGET_MS;
+        System.out.printf("%-26s \"%s\" (%d hits at full text): %s; GC pauses %d ms%n", label, text, hits[0], stats, gc);
+        return ok;
+    }
+}
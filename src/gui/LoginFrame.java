@@ -1,23 +1,40 @@
 package gui;
 
 import api.model.Employee;
-import api.service.CarRentalSystem;
+import api.service.AsyncCarRentalSystem;
 import api.service.ValidationException;
 import gui.util.Ui;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class LoginFrame extends JFrame{
-    private final CarRentalSystem system;
+    /** Ολοκληρώνεται όταν φορτωθούν τα δεδομένα· μέχρι τότε η φόρμα δέχεται ήδη πληκτρολόγηση. */
+    private final CompletableFuture<AsyncCarRentalSystem> service;
 
     private final JTextField usernameField = new JTextField(18);
     private final JPasswordField passwordField = new JPasswordField(18);
+    private final JLabel statusLabel = new JLabel(" ");
+    private final JButton loginBtn = new JButton("Login");
 
-    public LoginFrame(CarRentalSystem system){
+    public LoginFrame(AsyncCarRentalSystem service){
+        this(CompletableFuture.completedFuture(service));
+    }
+
+    public LoginFrame(CompletableFuture<AsyncCarRentalSystem> service){
         super("Car Rental - Login");
-        this.system = system;
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        this.service = service;
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                Main.exit(LoginFrame.this, service);
+            }
+        });
         setSize(420, 220);
         setLocationRelativeTo(null);
 
@@ -45,20 +62,50 @@ public class LoginFrame extends JFrame{
 
         root.add(form, BorderLayout.CENTER);
 
-        JButton loginBtn = new JButton("Login");
         loginBtn.addActionListener(e -> doLogin());
         getRootPane().setDefaultButton(loginBtn);
 
-        JPanel south = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-        south.add(loginBtn);
+        JPanel south = new JPanel(new BorderLayout());
+        south.add(statusLabel, BorderLayout.WEST);
+        south.add(loginBtn, BorderLayout.EAST);
         root.add(south, BorderLayout.SOUTH);
         setContentPane(root);
+
+        if (!service.isDone()) statusLabel.setText("Φόρτωση δεδομένων...");
+        service.whenComplete((s, failure) -> SwingUtilities.invokeLater(() -> {
+            if (failure == null) {
+                statusLabel.setText(" ");
+                return;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            statusLabel.setText("Σφάλμα φόρτωσης δεδομένων.");
+            Ui.error(this, "Σφάλμα φόρτωσης δεδομένων: " + cause.getMessage());
+        }));
     }
 
     private void doLogin(){
+        if (!loginBtn.isEnabled()) return; // Enter pressed again while waiting
+        // a login typed before the data is ready waits for it with the form locked;
+        // a load failure is reported by the listener set up in the constructor
+        setWaiting(true);
+        service.whenComplete((s, failure) -> SwingUtilities.invokeLater(() -> {
+            setWaiting(false);
+            if (failure == null) doLogin(s);
+        }));
+    }
+
+    private void setWaiting(boolean waiting){
+        loginBtn.setEnabled(!waiting);
+        usernameField.setEnabled(!waiting);
+        passwordField.setEnabled(!waiting);
+        setCursor(Cursor.getPredefinedCursor(waiting ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR));
+    }
+
+    private void doLogin(AsyncCarRentalSystem service){
         try {
-            Employee emp = system.login(usernameField.getText(), new String(passwordField.getPassword()));
-            MainFrame mf = new MainFrame(system, emp);
+            // credentials are checked in memory, no I/O on the EDT
+            Employee emp = service.getSystem().login(usernameField.getText(), new String(passwordField.getPassword()));
+            MainFrame mf = new MainFrame(service, emp);
             mf.setVisible(true);
             dispose();
         }catch (ValidationException ex) {
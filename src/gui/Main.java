@@ -1,25 +1,60 @@
 package gui;
 
+import api.service.AsyncCarRentalSystem;
 import api.service.CarRentalSystem;
 import api.storage.DataStore;
+import api.storage.Durability;
 import javax.swing.*;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public class Main{
     public static void main(String[] args){
+        // the data loads while the login window is being shown
+        CompletableFuture<AsyncCarRentalSystem> ready = new CompletableFuture<>();
+        Thread loader = new Thread(() -> {
+            try{
+                // saves run off the EDT; the shutdown hook drains them on exit
+                CarRentalSystem system = new CarRentalSystem(new DataStore(Durability.INTERVAL, 200));
+                Startup.mark("data loaded");
+                // mutations run on the service's I/O thread, never on the EDT
+                ready.complete(new AsyncCarRentalSystem(system));
+            } catch (IOException | RuntimeException e) {
+                ready.completeExceptionally(e);
+            }
+        }, "startup-load");
+        loader.setDaemon(true);
+        loader.start();
+
         SwingUtilities.invokeLater(() -> {
             try{
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
             } catch (Exception ignored) {}
+            Startup.mark("look and feel");
 
+            new LoginFrame(ready).setVisible(true);
+            Startup.mark("login window");
+        });
+    }
+
+    /**
+     * Έξοδος από το παράθυρο: οι εργασίες σε εξέλιξη ολοκληρώνονται και οι αλλαγές τους γράφονται
+     * πριν τερματίσει η JVM. Γίνεται εκτός EDT, με το παράθυρο ήδη κρυμμένο.
+     */
+    static void exit(JFrame frame, CompletableFuture<AsyncCarRentalSystem> service){
+        frame.setVisible(false);
+        Thread closer = new Thread(() -> {
             try{
-                CarRentalSystem system = new CarRentalSystem(new DataStore());
-                new LoginFrame(system).setVisible(true);
+                // still loading or failed to load: nothing of this session to save
+                if (service.isDone() && !service.isCompletedExceptionally()) service.join().close();
             } catch (IOException e) {
-                JOptionPane.showMessageDialog(null,
-                        "Σφάλμα φόρτωσης δεδομένων: " + e.getMessage(),
-                        "Error", JOptionPane.ERROR_MESSAGE);
+                System.err.println("DataStore: pending writes lost: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                System.exit(0);
             }
-        });
+        }, "app-exit");
+        closer.start();
     }
 }
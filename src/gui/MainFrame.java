@@ -1,7 +1,9 @@
 package gui;
 
 import api.model.Employee;
-import api.service.CarRentalSystem;
+import api.service.AsyncCarRentalSystem;
+import api.service.DataChangeEvent;
+import api.service.DataChangeListener;
 import gui.panels.CarPanel;
 import gui.panels.CustomerPanel;
 import gui.panels.RentalPanel;
@@ -9,29 +11,82 @@ import gui.panels.UserPanel;
 import gui.util.Ui;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public class MainFrame extends JFrame{
-    private final CarRentalSystem system;
+    private static final String TAB_FACTORY = "mainFrame.tabFactory";
+
+    private final AsyncCarRentalSystem service;
     private final Employee employee;
+    // failures of background work (e.g. the day rollover) arrive on the service's threads
+    private final DataChangeListener failures = e -> {
+        if (e.getKind() != DataChangeEvent.Kind.BACKGROUND_FAILURE) return;
+        SwingUtilities.invokeLater(() -> Ui.error(this,
+                "Σφάλμα αποθήκευσης στο παρασκήνιο (θα γίνει νέα προσπάθεια): " + e.getError().getMessage()));
+    };
 
-    public MainFrame(CarRentalSystem system,Employee employee){
+    public MainFrame(AsyncCarRentalSystem service,Employee employee){
         super("Car Rental - " + employee.getFullName());
-        this.system = system;
+        this.service = service;
         this.employee = employee;
 
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
         setSize(1100, 700);
         setLocationRelativeTo(null);
 
+        // each panel is built the first time its tab is selected
         JTabbedPane tabs = new JTabbedPane();
-        tabs.addTab("Αυτοκίνητα", new CarPanel(system));
-        tabs.addTab("Πελάτες", new CustomerPanel(system));
-        tabs.addTab("Ενοικιάσεις", new RentalPanel(system));
-        tabs.addTab("Χρήστες", new UserPanel(system));
+        addLazyTab(tabs, "Αυτοκίνητα", () -> new CarPanel(service));
+        addLazyTab(tabs, "Πελάτες", () -> new CustomerPanel(service));
+        addLazyTab(tabs, "Ενοικιάσεις", () -> new RentalPanel(service));
+        addLazyTab(tabs, "Χρήστες", () -> new UserPanel(service));
+        tabs.addChangeListener(e -> buildTab(tabs, tabs.getSelectedIndex()));
+        buildTab(tabs, 0);
 
         setLayout(new BorderLayout());
         add(buildTopBar(), BorderLayout.NORTH);
         add(tabs, BorderLayout.CENTER);
+
+        service.getSystem().addChangeListener(failures);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                // queued behind the first paint of the visible tab
+                SwingUtilities.invokeLater(() -> Startup.finish("first table"));
+            }
+
+            @Override
+            public void windowClosing(WindowEvent e) {
+                // queued rentals/returns finish and are flushed before the JVM exits
+                Main.exit(MainFrame.this, CompletableFuture.completedFuture(service));
+            }
+
+            @Override
+            public void windowClosed(WindowEvent e) {
+                service.getSystem().removeChangeListener(failures);
+            }
+        });
+        Startup.mark("main window");
+    }
+
+    private static void addLazyTab(JTabbedPane tabs, String title, Supplier<JComponent> factory) {
+        JPanel holder = new JPanel(new BorderLayout());
+        holder.putClientProperty(TAB_FACTORY, factory);
+        tabs.addTab(title, holder);
+    }
+
+    private static void buildTab(JTabbedPane tabs, int index) {
+        if (index < 0) return;
+        JPanel holder = (JPanel) tabs.getComponentAt(index);
+        @SuppressWarnings("unchecked")
+        Supplier<JComponent> factory = (Supplier<JComponent>) holder.getClientProperty(TAB_FACTORY);
+        if (factory == null) return;
+        holder.putClientProperty(TAB_FACTORY, null);
+        holder.add(factory.get(), BorderLayout.CENTER);
+        holder.revalidate();
     }
 
     private JComponent buildTopBar() {
@@ -44,8 +99,8 @@ public class MainFrame extends JFrame{
         JButton logout = new JButton("Logout");
         logout.addActionListener(e -> {
             if (!Ui.confirm(this, "Αποσύνδεση;")) return;
-            system.logout();
-            new LoginFrame(system).setVisible(true);
+            service.getSystem().logout();
+            new LoginFrame(service).setVisible(true);
             dispose();
         });
         p.add(logout, BorderLayout.EAST);
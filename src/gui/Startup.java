@@ -0,0 +1,31 @@
+package gui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Χρονομέτρηση των φάσεων εκκίνησης (από την αρχή του main). Κάθε φάση καταγράφεται μία φορά
+ * και η αναφορά τυπώνεται στο stderr όταν εμφανιστεί ο πρώτος πίνακας.
+ */
+final class Startup {
+    private static final long T0 = System.nanoTime();
+    private static final List<String> phases = new ArrayList<>();
+    private static boolean reported;
+
+    private Startup() {}
+
+    /** Τέλος μιας φάσης· μπορεί να κληθεί από οποιοδήποτε thread. */
+    static synchronized void mark(String phase) {
+        if (reported) return;
+        phases.add(phase + " " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - T0) + " ms");
+    }
+
+    /** Τελευταία φάση· τυπώνει όλες τις φάσεις σε μία γραμμή (μόνο την πρώτη φορά). */
+    static synchronized void finish(String phase) {
+        if (reported) return;
+        mark(phase);
+        reported = true;
+        System.err.println("Startup: " + String.join(", ", phases));
+    }
+}
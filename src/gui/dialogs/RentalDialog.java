@@ -4,19 +4,22 @@ import api.model.Car;
 import api.model.CarStatus;
 import api.model.Customer;
 import api.service.CarRentalSystem;
+import gui.util.TypeAheadPicker;
 import gui.util.Ui;
 
 import javax.swing.*;
 import java.awt.*;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 
 public class RentalDialog extends JDialog {
     private boolean ok = false;
 
-    private final JComboBox<Car> carBox = new JComboBox<>();
-    private final JComboBox<Customer> customerBox = new JComboBox<>();
+    /** Πόσα αποτελέσματα δείχνει κάθε picker. */
+    private static final int PICKER_LIMIT = 20;
+
+    private final TypeAheadPicker<Car> carPicker;
+    private final TypeAheadPicker<Customer> customerPicker;
     private final JTextField startField = new JTextField(10); // yyyy-MM-dd
     private final JTextField endField = new JTextField(10);
 
@@ -25,7 +28,7 @@ public class RentalDialog extends JDialog {
     public RentalDialog(Window owner, CarRentalSystem system) {
         super(owner, "Νέα Ενοικίαση", ModalityType.APPLICATION_MODAL);
         this.system = system;
-        setSize(520, 280);
+        setSize(640, 280);
         setLocationRelativeTo(owner);
 
         JPanel form = new JPanel(new GridBagLayout());
@@ -34,14 +37,16 @@ public class RentalDialog extends JDialog {
         gc.insets = new Insets(6,6,6,6);
         gc.anchor = GridBagConstraints.WEST;
 
-        loadCombos();
+        // pickers query bounded indexes as the user types, so opening costs the same for any fleet size
+        carPicker = new TypeAheadPicker<>(8, text -> system.searchCars(text, CarStatus.AVAILABLE, PICKER_LIMIT));
+        customerPicker = new TypeAheadPicker<>(8, this::findCustomers);
 
         startField.setText(LocalDate.now().toString());
         endField.setText(LocalDate.now().plusDays(3).toString());
 
         int y = 0;
-        addRow(form, gc, y++, "Αυτοκίνητο (διαθέσιμα):", carBox);
-        addRow(form, gc, y++, "Πελάτης:", customerBox);
+        addRow(form, gc, y++, "Αυτοκίνητο (πινακίδα):", carPicker);
+        addRow(form, gc, y++, "Πελάτης (ΑΦΜ/όνομα):", customerPicker);
         addRow(form, gc, y++, "Ημ/νία έναρξης (yyyy-MM-dd):", startField);
         addRow(form, gc, y++, "Ημ/νία λήξης (yyyy-MM-dd):", endField);
 
@@ -59,19 +64,26 @@ public class RentalDialog extends JDialog {
         add(south, BorderLayout.SOUTH);
 
         getRootPane().setDefaultButton(okBtn);
+
+        carPicker.start();
+        customerPicker.start();
     }
 
-    private void loadCombos() {
-        List<Car> available = new ArrayList<>();
-        for (Car c : system.getCars()) {
-            if (c.getStatus() == CarStatus.AVAILABLE) available.add(c);
-        }
-        DefaultComboBoxModel<Car> carModel = new DefaultComboBoxModel<>(available.toArray(new Car[0]));
-        carBox.setModel(carModel);
+    @Override
+    public void dispose() {
+        carPicker.cancel();
+        customerPicker.cancel();
+        super.dispose();
+    }
 
-        List<Customer> customers = system.getCustomers();
-        DefaultComboBoxModel<Customer> custModel = new DefaultComboBoxModel<>(customers.toArray(new Customer[0]));
-        customerBox.setModel(custModel);
+    // digits search the AFM, anything else the name; no text shows the first customers
+    private List<Customer> findCustomers(String text) {
+        if (text.isEmpty()) {
+            List<Customer> all = system.getCustomers();
+            return all.subList(0, Math.min(PICKER_LIMIT, all.size()));
+        }
+        if (text.chars().allMatch(Character::isDigit)) return system.searchCustomers(text, null, null, PICKER_LIMIT);
+        return system.searchCustomers(null, text, null, PICKER_LIMIT);
     }
 
     private void addRow(JPanel p, GridBagConstraints gc, int y, String label, Component field) {
@@ -82,12 +94,12 @@ public class RentalDialog extends JDialog {
     }
 
     private void onOk() {
-        if (carBox.getSelectedItem() == null) {
-            Ui.error(this, "Δεν υπάρχουν διαθέσιμα αυτοκίνητα.");
+        if (carPicker.getSelected() == null) {
+            Ui.error(this, "Επιλέξτε διαθέσιμο αυτοκίνητο.");
             return;
         }
-        if (customerBox.getSelectedItem() == null) {
-            Ui.error(this, "Δεν υπάρχουν πελάτες.");
+        if (customerPicker.getSelected() == null) {
+            Ui.error(this, "Επιλέξτε πελάτη.");
             return;
         }
         // basic date validation (real validation in service)
@@ -106,13 +118,11 @@ public class RentalDialog extends JDialog {
     public boolean isOk() { return ok; }
 
     public int getCarId() {
-        Car c = (Car) carBox.getSelectedItem();
-        return c.getId();
+        return carPicker.getSelected().getId();
     }
 
     public String getCustomerAfm() {
-        Customer c = (Customer) customerBox.getSelectedItem();
-        return c.getAfm();
+        return customerPicker.getSelected().getAfm();
     }
 
     public LocalDate getStartDate() { return LocalDate.parse(startField.getText().trim()); }
@@ -2,20 +2,23 @@ package gui.panels;
 
 import api.model.Car;
 import api.model.CarStatus;
+import api.service.AsyncCarRentalSystem;
 import api.service.CarRentalSystem;
-import api.service.ValidationException;
+import api.service.DataChangeEvent;
+import api.service.DataChangeListener;
 import gui.dialogs.CarDialog;
+import gui.util.DebouncedSearch;
+import gui.util.PagedTableModel;
 import gui.util.Ui;
 
 import javax.swing.*;
-import javax.swing.table.AbstractTableModel;
 import java.awt.*;
-import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 public class CarPanel extends JPanel {
     private final CarRentalSystem system;
+    private final AsyncCarRentalSystem service;
 
     private final JTextField brandField = new JTextField(10);
     private final JTextField plateField = new JTextField(8);
@@ -27,15 +30,54 @@ public class CarPanel extends JPanel {
     private final CarTableModel tableModel = new CarTableModel();
     private final JTable table = new JTable(tableModel);
 
-    public CarPanel(CarRentalSystem system) {
+    // events arrive on the service thread; rows are touched only on the EDT
+    private final DataChangeListener changes = e -> SwingUtilities.invokeLater(() -> onDataChanged(e));
+    private boolean showingAll = true;
+    // whether the latest prepared search is "no criteria"; only the latest one is ever delivered
+    private boolean searchingAll;
+
+    private final JLabel latencyLabel = new JLabel(" ");
+    private final DebouncedSearch<List<Car>> search =
+            new DebouncedSearch<>(DebouncedSearch.DEFAULT_DELAY_MILLIS, this::prepareSearch, this::showResults);
+
+    public CarPanel(AsyncCarRentalSystem service) {
         super(new BorderLayout(8,8));
-        this.system = system;
+        this.service = service;
+        this.system = service.getSystem();
 
         add(buildSearchBar(), BorderLayout.NORTH);
         add(new JScrollPane(table), BorderLayout.CENTER);
         add(buildButtons(), BorderLayout.SOUTH);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        system.addChangeListener(changes);
+        refreshAll(); // catch up on anything missed while detached
+    }
 
-        refreshAll();
+    @Override
+    public void removeNotify() {
+        system.removeChangeListener(changes);
+        super.removeNotify();
+    }
+
+    private void onDataChanged(DataChangeEvent e) {
+        switch (e.getKind()) {
+            case CAR_ADDED:
+                // a search result only changes when the user searches again
+                if (showingAll) tableModel.appendRows(system.getCars());
+                break;
+            case CAR_UPDATED:
+                tableModel.update(e.getCar());
+                break;
+            case RELOADED:
+                refreshAll();
+                break;
+            default:
+                break;
+        }
     }
 
     private JComponent buildSearchBar() {
@@ -55,17 +97,24 @@ public class CarPanel extends JPanel {
         p.add(new JLabel("Κατάσταση:"));
         p.add(statusBox);
 
+        // results follow the fields as the user types
+        for (JTextField f : new JTextField[]{brandField, plateField, modelField, colorField, typeField}) search.watch(f);
+        statusBox.addActionListener(e -> search.trigger());
+
         JButton searchBtn = new JButton("Αναζήτηση");
-        searchBtn.addActionListener(e -> doSearch());
+        searchBtn.addActionListener(e -> search.runNow());
         JButton clearBtn = new JButton("Καθαρισμός");
         clearBtn.addActionListener(e -> {
             brandField.setText(""); plateField.setText(""); modelField.setText(""); colorField.setText(""); typeField.setText("");
             statusBox.setSelectedIndex(0);
+            search.cancel();
+            latencyLabel.setText(" ");
             refreshAll();
         });
 
         p.add(searchBtn);
         p.add(clearBtn);
+        p.add(latencyLabel);
         return p;
     }
 
@@ -83,23 +132,31 @@ public class CarPanel extends JPanel {
     }
 
     private void refreshAll() {
+        showingAll = true;
         tableModel.setRows(system.getCars());
     }
 
-    private void doSearch() {
+    // on the EDT: read the fields, return the query for the search thread
+    private Callable<List<Car>> prepareSearch() {
         CarStatus status = null;
         if (statusBox.getSelectedIndex() == 1) status = CarStatus.AVAILABLE;
         if (statusBox.getSelectedIndex() == 2) status = CarStatus.RENTED;
 
-        List<Car> res = system.searchCars(
-                brandField.getText(),
-                plateField.getText(),
-                modelField.getText(),
-                colorField.getText(),
-                typeField.getText(),
-                status
-        );
+        String brand = brandField.getText();
+        String plate = plateField.getText();
+        String model = modelField.getText();
+        String color = colorField.getText();
+        String type = typeField.getText();
+        CarStatus wanted = status;
+        searchingAll = wanted == null && (brand + plate + model + color + type).trim().isEmpty();
+        if (searchingAll) return system::getCars;
+        return () -> system.searchCars(brand, plate, model, color, type, wanted);
+    }
+
+    private void showResults(List<Car> res, long millis) {
+        showingAll = searchingAll;
         tableModel.setRows(res);
+        latencyLabel.setText(res.size() + " αποτελέσματα σε " + millis + " ms");
     }
 
     private Car selected() {
@@ -113,15 +170,9 @@ public class CarPanel extends JPanel {
         d.setVisible(true);
         if (!d.isOk()) return;
 
-        try {
-            system.addCar(d.getCar());
+        Ui.run(this, service.addCar(d.getCar()), done -> {
             Ui.info(this, "Το αυτοκίνητο προστέθηκε.");
-            refreshAll();
-        } catch (ValidationException ex) {
-            Ui.error(this, ex.getMessage());
-        } catch (IOException ex) {
-            Ui.error(this, "Σφάλμα αποθήκευσης: " + ex.getMessage());
-        }
+        });
     }
 
     private void onEdit() {
@@ -132,35 +183,23 @@ public class CarPanel extends JPanel {
         d.setVisible(true);
         if (!d.isOk()) return;
 
-        try {
-            system.updateCar(d.getCar());
+        Ui.run(this, service.updateCar(d.getCar()), done -> {
             Ui.info(this, "Οι αλλαγές αποθηκεύτηκαν.");
-            refreshAll();
-        } catch (ValidationException ex) {
-            Ui.error(this, ex.getMessage());
-        } catch (IOException ex) {
-            Ui.error(this, "Σφάλμα αποθήκευσης: " + ex.getMessage());
-        }
+        });
     }
 
-    private static class CarTableModel extends AbstractTableModel {
-        private final String[] cols = {"ID", "Πινακίδα", "Μάρκα", "Τύπος", "Μοντέλο", "Έτος", "Χρώμα", "Κατάσταση"};
-        private List<Car> rows = new ArrayList<>();
-
-        public void setRows(List<Car> rows) {
-            this.rows = rows == null ? new ArrayList<>() : new ArrayList<>(rows);
-            fireTableDataChanged();
+    private static class CarTableModel extends PagedTableModel<Car> {
+        CarTableModel() {
+            super(new String[]{"ID", "Πινακίδα", "Μάρκα", "Τύπος", "Μοντέλο", "Έτος", "Χρώμα", "Κατάσταση"});
         }
 
-        public Car getAt(int r) { return rows.get(r); }
-
-        @Override public int getRowCount() { return rows.size(); }
-        @Override public int getColumnCount() { return cols.length; }
-        @Override public String getColumnName(int col) { return cols[col]; }
+        /** Οι αλλαγές γίνονται πάνω στο ίδιο αντικείμενο· αρκεί να ξαναμορφοποιηθεί η γραμμή. */
+        public void update(Car c) {
+            invalidate(row -> row.getId() == c.getId());
+        }
 
         @Override
-        public Object getValueAt(int rowIndex, int columnIndex) {
-            Car c = rows.get(rowIndex);
+        protected Object format(Car c, int columnIndex) {
             switch (columnIndex) {
                 case 0: return c.getId();
                 case 1: return c.getPlate();
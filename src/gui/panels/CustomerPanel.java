@@ -1,20 +1,24 @@
 package gui.panels;
 
 import api.model.Customer;
+import api.service.AsyncCarRentalSystem;
 import api.service.CarRentalSystem;
-import api.service.ValidationException;
+import api.service.DataChangeEvent;
+import api.service.DataChangeListener;
 import gui.dialogs.CustomerDialog;
 import gui.util.Ui;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
 import java.awt.*;
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class CustomerPanel extends JPanel {
     private final CarRentalSystem system;
+    private final AsyncCarRentalSystem service;
 
     private final JTextField afmField = new JTextField(10);
     private final JTextField nameField = new JTextField(14);
@@ -23,15 +27,48 @@ public class CustomerPanel extends JPanel {
     private final CustomerTableModel tableModel = new CustomerTableModel();
     private final JTable table = new JTable(tableModel);
 
-    public CustomerPanel(CarRentalSystem system) {
+    // events arrive on the service thread; rows are touched only on the EDT
+    private final DataChangeListener changes = e -> SwingUtilities.invokeLater(() -> onDataChanged(e));
+    private boolean showingAll = true;
+
+    public CustomerPanel(AsyncCarRentalSystem service) {
         super(new BorderLayout(8,8));
-        this.system = system;
+        this.service = service;
+        this.system = service.getSystem();
 
         add(buildSearchBar(), BorderLayout.NORTH);
         add(new JScrollPane(table), BorderLayout.CENTER);
         add(buildButtons(), BorderLayout.SOUTH);
+    }
 
-        refreshAll();
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        system.addChangeListener(changes);
+        refreshAll(); // catch up on anything missed while detached
+    }
+
+    @Override
+    public void removeNotify() {
+        system.removeChangeListener(changes);
+        super.removeNotify();
+    }
+
+    private void onDataChanged(DataChangeEvent e) {
+        switch (e.getKind()) {
+            case CUSTOMER_ADDED:
+                // a search result only changes when the user searches again
+                if (showingAll) tableModel.upsert(e.getCustomer());
+                break;
+            case CUSTOMER_UPDATED:
+                tableModel.update(e.getCustomer());
+                break;
+            case RELOADED:
+                refreshAll();
+                break;
+            default:
+                break;
+        }
     }
 
     private JComponent buildSearchBar() {
@@ -72,10 +109,12 @@ public class CustomerPanel extends JPanel {
     }
 
     private void refreshAll() {
+        showingAll = true;
         tableModel.setRows(system.getCustomers());
     }
 
     private void doSearch() {
+        showingAll = false;
         tableModel.setRows(system.searchCustomers(afmField.getText(), nameField.getText(), phoneField.getText()));
     }
 
@@ -90,15 +129,9 @@ public class CustomerPanel extends JPanel {
         d.setVisible(true);
         if (!d.isOk()) return;
 
-        try {
-            system.addCustomer(d.getCustomer());
+        Ui.run(this, service.addCustomer(d.getCustomer()), done -> {
             Ui.info(this, "Ο πελάτης προστέθηκε.");
-            refreshAll();
-        } catch (ValidationException ex) {
-            Ui.error(this, ex.getMessage());
-        } catch (IOException ex) {
-            Ui.error(this, "Σφάλμα αποθήκευσης: " + ex.getMessage());
-        }
+        });
     }
 
     private void onEdit() {
@@ -109,26 +142,42 @@ public class CustomerPanel extends JPanel {
         d.setVisible(true);
         if (!d.isOk()) return;
 
-        try {
-            system.updateCustomer(d.getCustomer());
+        Ui.run(this, service.updateCustomer(d.getCustomer()), done -> {
             Ui.info(this, "Οι αλλαγές αποθηκεύτηκαν.");
-            refreshAll();
-        } catch (ValidationException ex) {
-            Ui.error(this, ex.getMessage());
-        } catch (IOException ex) {
-            Ui.error(this, "Σφάλμα αποθήκευσης: " + ex.getMessage());
-        }
+        });
     }
 
     private static class CustomerTableModel extends AbstractTableModel {
         private final String[] cols = {"ΑΦΜ", "Ονοματεπώνυμο", "Τηλέφωνο", "Email"};
         private List<Customer> rows = new ArrayList<>();
+        private final Map<String, Integer> rowOfAfm = new HashMap<>();
 
         public void setRows(List<Customer> rows) {
             this.rows = rows == null ? new ArrayList<>() : new ArrayList<>(rows);
+            rowOfAfm.clear();
+            for (int i = 0; i < this.rows.size(); i++) rowOfAfm.put(this.rows.get(i).getAfm(), i);
             fireTableDataChanged();
         }
 
+        /** Προσθήκη στο τέλος, ή ενημέρωση αν η γραμμή υπάρχει ήδη. */
+        public void upsert(Customer c) {
+            if (rowOfAfm.containsKey(c.getAfm())) {
+                update(c);
+                return;
+            }
+            rows.add(c);
+            int row = rows.size() - 1;
+            rowOfAfm.put(c.getAfm(), row);
+            fireTableRowsInserted(row, row);
+        }
+
+        public void update(Customer c) {
+            Integer row = rowOfAfm.get(c.getAfm());
+            if (row == null) return;
+            rows.set(row, c);
+            fireTableRowsUpdated(row, row);
+        }
+
         public Customer getAt(int r) { return rows.get(r); }
 
         @Override public int getRowCount() { return rows.size(); }
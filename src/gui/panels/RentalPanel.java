@@ -3,44 +3,104 @@ package gui.panels;
 import api.model.Car;
 import api.model.Customer;
 import api.model.Rental;
+import api.service.AsyncCarRentalSystem;
 import api.service.CarRentalSystem;
-import api.service.ValidationException;
+import api.service.DataChangeEvent;
+import api.service.DataChangeListener;
+import api.service.TextFold;
 import gui.dialogs.RentalDialog;
+import gui.util.DebouncedSearch;
+import gui.util.PagedTableModel;
 import gui.util.Ui;
 
 import javax.swing.*;
-import javax.swing.table.AbstractTableModel;
 import java.awt.*;
-import java.io.IOException;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class RentalPanel extends JPanel {
     private final CarRentalSystem system;
+    private final AsyncCarRentalSystem service;
 
-    private final RentalTableModel tableModel = new RentalTableModel();
-    private final JTable table = new JTable(tableModel);
+    private final RentalTableModel tableModel;
+    private final JTable table;
 
     private final JTextField customerAfmField = new JTextField(10);
     private final JTextField carPlateField = new JTextField(8);
 
-    public RentalPanel(CarRentalSystem system) {
+    // events arrive on the service thread; rows are touched only on the EDT
+    private final DataChangeListener changes = e -> SwingUtilities.invokeLater(() -> onDataChanged(e));
+    /** Ποιες ενοικιάσεις ανήκουν στην τρέχουσα προβολή (όλες, φίλτρο ή ιστορικό). */
+    private Predicate<Rental> view = r -> true;
+    /** Το στιγμιότυπο της υπηρεσίας που δείχνει η προβολή· null για αποτέλεσμα φίλτρου. */
+    private Supplier<List<Rental>> source;
+
+    private final JLabel latencyLabel = new JLabel(" ");
+    private final DebouncedSearch<List<Rental>> search =
+            new DebouncedSearch<>(DebouncedSearch.DEFAULT_DELAY_MILLIS, this::prepareFilter, this::showFiltered);
+
+    public RentalPanel(AsyncCarRentalSystem service) {
         super(new BorderLayout(8,8));
-        this.system = system;
+        this.service = service;
+        this.system = service.getSystem();
+        this.tableModel = new RentalTableModel(system);
+        this.table = new JTable(tableModel);
 
         add(buildTop(), BorderLayout.NORTH);
         add(new JScrollPane(table), BorderLayout.CENTER);
         add(buildButtons(), BorderLayout.SOUTH);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        system.addChangeListener(changes);
+        refreshAll(); // catch up on anything missed while detached
+    }
+
+    @Override
+    public void removeNotify() {
+        system.removeChangeListener(changes);
+        super.removeNotify();
+    }
 
-        refreshAll();
+    private void onDataChanged(DataChangeEvent e) {
+        switch (e.getKind()) {
+            case RENTAL_CREATED:
+                if (!view.test(e.getRental())) break;
+                if (source != null) tableModel.appendRows(source.get());
+                else tableModel.append(e.getRental());
+                break;
+            case RENTAL_RETURNED:
+                long id = e.getRental().getRentalId();
+                tableModel.invalidate(r -> r.getRentalId() == id);
+                break;
+            case CAR_UPDATED:
+                // only the plate column depends on the car
+                int carId = e.getCar().getId();
+                tableModel.invalidate(r -> r.getCarId() == carId);
+                break;
+            case RENTALS_ARCHIVED:
+                // a live view lost rows in the middle; a search or history result is our own list
+                if (source != null) tableModel.setRows(source.get());
+                break;
+            case RELOADED:
+                refreshAll();
+                break;
+            default:
+                break;
+        }
     }
 
     private JComponent buildTop() {
         JPanel p = new JPanel(new BorderLayout());
         p.setBorder(BorderFactory.createEmptyBorder(6,6,6,6));
 
-        JLabel hint = new JLabel("Εμφανίζονται όλες οι ενοικιάσεις (ενεργές + ιστορικό).");
+        JLabel hint = new JLabel("Εμφανίζονται οι ενεργές και οι πρόσφατες ενοικιάσεις· το παλαιότερο ιστορικό από τα κουμπιά ιστορικού.");
         p.add(hint, BorderLayout.WEST);
 
         JPanel filters = new JPanel(new FlowLayout(FlowLayout.RIGHT));
@@ -49,13 +109,22 @@ public class RentalPanel extends JPanel {
         filters.add(new JLabel("Φίλτρο Πινακίδας:"));
         filters.add(carPlateField);
 
+        search.watch(customerAfmField);
+        search.watch(carPlateField);
+
         JButton apply = new JButton("Εφαρμογή");
-        apply.addActionListener(e -> applyFilter());
+        apply.addActionListener(e -> search.runNow());
         JButton clear = new JButton("Καθαρισμός");
-        clear.addActionListener(e -> { customerAfmField.setText(""); carPlateField.setText(""); refreshAll(); });
+        clear.addActionListener(e -> {
+            customerAfmField.setText(""); carPlateField.setText("");
+            search.cancel();
+            latencyLabel.setText(" ");
+            refreshAll();
+        });
 
         filters.add(apply);
         filters.add(clear);
+        filters.add(latencyLabel);
 
         p.add(filters, BorderLayout.EAST);
         return p;
@@ -81,25 +150,42 @@ public class RentalPanel extends JPanel {
     }
 
     private void refreshAll() {
-        tableModel.setRows(system.getRentals(), system);
+        show(r -> true, system::getRentals);
     }
 
-    private void applyFilter() {
+    /** Προβολή που ακολουθεί ένα στιγμιότυπο της υπηρεσίας (χωρίς αντιγραφή). */
+    private void show(Predicate<Rental> view, Supplier<List<Rental>> source) {
+        this.view = view;
+        this.source = source;
+        tableModel.setRows(source.get());
+    }
+
+    // on the EDT: read the fields, return the query for the search thread
+    private Callable<List<Rental>> prepareFilter() {
         String afm = customerAfmField.getText().trim();
         String plate = carPlateField.getText().trim();
+        return () -> system.searchRentals(afm, plate);
+    }
 
-        List<Rental> all = system.getRentals();
-        List<Rental> filtered = new ArrayList<>();
-        for (Rental r : all) {
-            boolean ok = true;
-            if (!afm.isEmpty() && !r.getCustomerAfm().contains(afm)) ok = false;
+    private void showFiltered(List<Rental> found, long millis) {
+        String afm = customerAfmField.getText().trim();
+        String plate = TextFold.fold(carPlateField.getText().trim());
+        latencyLabel.setText(found.size() + " αποτελέσματα σε " + millis + " ms");
+        if (afm.isEmpty() && plate.isEmpty()) {
+            refreshAll();
+            return;
+        }
+        // decides whether rentals created later belong to this result
+        view = r -> {
+            if (!afm.isEmpty() && !r.getCustomerAfm().contains(afm)) return false;
             if (!plate.isEmpty()) {
                 Car c = system.findCarById(r.getCarId());
-                if (c == null || !c.getPlate().toLowerCase().contains(plate.toLowerCase())) ok = false;
+                if (c == null || !TextFold.fold(c.getPlate()).contains(plate)) return false;
             }
-            if (ok) filtered.add(r);
-        }
-        tableModel.setRows(filtered, system);
+            return true;
+        };
+        source = null;
+        tableModel.setRows(found);
     }
 
     private Rental selected() {
@@ -113,15 +199,9 @@ public class RentalPanel extends JPanel {
         d.setVisible(true);
         if (!d.isOk()) return;
 
-        try {
-            system.rentCar(d.getCarId(), d.getCustomerAfm(), d.getStartDate(), d.getEndDate());
+        Ui.run(this, service.rentCar(d.getCarId(), d.getCustomerAfm(), d.getStartDate(), d.getEndDate()), done -> {
             Ui.info(this, "Η ενοικίαση καταχωρήθηκε.");
-            refreshAll();
-        } catch (ValidationException ex) {
-            Ui.error(this, ex.getMessage());
-        } catch (IOException ex) {
-            Ui.error(this, "Σφάλμα αποθήκευσης: " + ex.getMessage());
-        }
+        });
     }
 
     private void onReturn() {
@@ -131,15 +211,9 @@ public class RentalPanel extends JPanel {
 
         if (!Ui.confirm(this, "Ολοκλήρωση επιστροφής για rentalId=" + r.getRentalId() + ";")) return;
 
-        try {
-            system.returnRental(r.getRentalId());
+        Ui.run(this, service.returnRental(r.getRentalId()), done -> {
             Ui.info(this, "Η επιστροφή ολοκληρώθηκε.");
-            refreshAll();
-        } catch (ValidationException ex) {
-            Ui.error(this, ex.getMessage());
-        } catch (IOException ex) {
-            Ui.error(this, "Σφάλμα αποθήκευσης: " + ex.getMessage());
-        }
+        });
     }
 
     private void onHistoryCustomer() {
@@ -148,8 +222,10 @@ public class RentalPanel extends JPanel {
         Customer c = system.findCustomerByAfm(afm.trim());
         if (c == null) { Ui.error(this, "Ο πελάτης δεν βρέθηκε."); return; }
 
-        List<Rental> rs = system.getRentalsForCustomer(c.getAfm());
-        tableModel.setRows(rs, system);
+        String key = c.getAfm();
+        // the archived part is read from disk, so off the EDT
+        Ui.run(this, service.submit(() -> system.getRentalsForCustomer(key)),
+                found -> showHistory(r -> r.getCustomerAfm().equals(key), found));
     }
 
     private void onHistoryCar() {
@@ -158,47 +234,42 @@ public class RentalPanel extends JPanel {
         Car car = system.findCarByPlate(plate.trim());
         if (car == null) { Ui.error(this, "Το αυτοκίνητο δεν βρέθηκε."); return; }
 
-        List<Rental> rs = system.getRentalsForCar(car.getId());
-        tableModel.setRows(rs, system);
+        int carId = car.getId();
+        Ui.run(this, service.submit(() -> system.getRentalsForCar(carId)),
+                found -> showHistory(r -> r.getCarId() == carId, found));
     }
 
-    private static class RentalTableModel extends AbstractTableModel {
-        private final String[] cols = {"Rental ID", "Πινακίδα", "Πελάτης(ΑΦΜ)", "Υπάλληλος", "Έναρξη", "Λήξη", "Κατάσταση", "Επιστροφή"};
-        private List<Rental> rows = new ArrayList<>();
-        private List<String[]> cache = new ArrayList<>();
+    /** Ιστορικό (μαζί με το αρχείο)· οι νέες ενοικιάσεις που ταιριάζουν προστίθενται στο τέλος. */
+    private void showHistory(Predicate<Rental> view, List<Rental> found) {
+        this.view = view;
+        this.source = null;
+        tableModel.setRows(found);
+    }
+
+    private static class RentalTableModel extends PagedTableModel<Rental> {
+        private final CarRentalSystem system;
         private final DateTimeFormatter fmt = DateTimeFormatter.ISO_LOCAL_DATE;
 
-        public void setRows(List<Rental> rows, CarRentalSystem system) {
-            this.rows = rows == null ? new ArrayList<>() : new ArrayList<>(rows);
-            cache = new ArrayList<>();
-            for (Rental r : this.rows) {
-                Car car = system.findCarById(r.getCarId());
-                String plate = car == null ? ("#" + r.getCarId()) : car.getPlate();
-                String status = r.isReturned() ? "Ολοκληρωμένη" : "Ενεργή";
-                String retDate = r.getActualReturnDate() == null ? "" : r.getActualReturnDate().format(fmt);
-                cache.add(new String[]{
-                        String.valueOf(r.getRentalId()),
-                        plate,
-                        r.getCustomerAfm(),
-                        r.getEmployeeUsername(),
-                        r.getStartDate().format(fmt),
-                        r.getEndDate().format(fmt),
-                        status,
-                        retDate
-                });
-            }
-            fireTableDataChanged();
+        RentalTableModel(CarRentalSystem system) {
+            super(new String[]{"Rental ID", "Πινακίδα", "Πελάτης(ΑΦΜ)", "Υπάλληλος", "Έναρξη", "Λήξη", "Κατάσταση", "Επιστροφή"});
+            this.system = system;
         }
 
-        public Rental getAt(int r) { return rows.get(r); }
-
-        @Override public int getRowCount() { return rows.size(); }
-        @Override public int getColumnCount() { return cols.length; }
-        @Override public String getColumnName(int col) { return cols[col]; }
-
         @Override
-        public Object getValueAt(int rowIndex, int columnIndex) {
-            return cache.get(rowIndex)[columnIndex];
+        protected Object format(Rental r, int columnIndex) {
+            switch (columnIndex) {
+                case 0: return String.valueOf(r.getRentalId());
+                case 1:
+                    Car car = system.findCarById(r.getCarId());
+                    return car == null ? ("#" + r.getCarId()) : car.getPlate();
+                case 2: return r.getCustomerAfm();
+                case 3: return r.getEmployeeUsername();
+                case 4: return r.getStartDate().format(fmt);
+                case 5: return r.getEndDate().format(fmt);
+                case 6: return r.isReturned() ? "Ολοκληρωμένη" : r.getStartDate().isAfter(LocalDate.now()) ? "Κράτηση" : "Ενεργή";
+                case 7: return r.getActualReturnDate() == null ? "" : r.getActualReturnDate().format(fmt);
+                default: return "";
+            }
         }
     }
 }
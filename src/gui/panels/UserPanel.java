@@ -1,32 +1,65 @@
 package gui.panels;
 
 import api.model.Employee;
+import api.service.AsyncCarRentalSystem;
 import api.service.CarRentalSystem;
-import api.service.ValidationException;
+import api.service.DataChangeEvent;
+import api.service.DataChangeListener;
 import gui.dialogs.UserDialog;
 import gui.util.Ui;
 
 import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
 import java.awt.*;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 public class UserPanel extends JPanel {
     private final CarRentalSystem system;
+    private final AsyncCarRentalSystem service;
 
     private final UserTableModel tableModel = new UserTableModel();
     private final JTable table = new JTable(tableModel);
 
-    public UserPanel(CarRentalSystem system) {
+    // events arrive on the service thread; rows are touched only on the EDT
+    private final DataChangeListener changes = e -> SwingUtilities.invokeLater(() -> onDataChanged(e));
+
+    public UserPanel(AsyncCarRentalSystem service) {
         super(new BorderLayout(8,8));
-        this.system = system;
+        this.service = service;
+        this.system = service.getSystem();
 
         add(new JScrollPane(table), BorderLayout.CENTER);
         add(buildButtons(), BorderLayout.SOUTH);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        system.addChangeListener(changes);
+        refreshAll(); // catch up on anything missed while detached
+    }
 
-        refreshAll();
+    @Override
+    public void removeNotify() {
+        system.removeChangeListener(changes);
+        super.removeNotify();
+    }
+
+    private void onDataChanged(DataChangeEvent e) {
+        switch (e.getKind()) {
+            case EMPLOYEE_ADDED:
+                tableModel.add(e.getEmployee());
+                break;
+            case EMPLOYEE_REMOVED:
+                tableModel.remove(e.getEmployee());
+                break;
+            case RELOADED:
+                refreshAll();
+                break;
+            default:
+                break;
+        }
     }
 
     private JComponent buildButtons() {
@@ -57,15 +90,9 @@ public class UserPanel extends JPanel {
         d.setVisible(true);
         if (!d.isOk()) return;
 
-        try {
-            system.addEmployee(d.getEmployee());
+        Ui.run(this, service.addEmployee(d.getEmployee()), done -> {
             Ui.info(this, "Ο χρήστης προστέθηκε.");
-            refreshAll();
-        } catch (ValidationException ex) {
-            Ui.error(this, ex.getMessage());
-        } catch (IOException ex) {
-            Ui.error(this, "Σφάλμα αποθήκευσης: " + ex.getMessage());
-        }
+        });
     }
 
     private void onDelete() {
@@ -74,15 +101,9 @@ public class UserPanel extends JPanel {
 
         if (!Ui.confirm(this, "Διαγραφή χρήστη " + e.getUsername() + ";")) return;
 
-        try {
-            system.deleteEmployee(e.getUsername());
+        Ui.run(this, service.deleteEmployee(e.getUsername()), done -> {
             Ui.info(this, "Ο χρήστης διαγράφηκε.");
-            refreshAll();
-        } catch (ValidationException ex) {
-            Ui.error(this, ex.getMessage());
-        } catch (IOException ex) {
-            Ui.error(this, "Σφάλμα αποθήκευσης: " + ex.getMessage());
-        }
+        });
     }
 
     private static class UserTableModel extends AbstractTableModel {
@@ -94,6 +115,19 @@ public class UserPanel extends JPanel {
             fireTableDataChanged();
         }
 
+        public void add(Employee e) {
+            if (rows.contains(e)) return;
+            rows.add(e);
+            fireTableRowsInserted(rows.size() - 1, rows.size() - 1);
+        }
+
+        public void remove(Employee e) {
+            int row = rows.indexOf(e);
+            if (row < 0) return;
+            rows.remove(row);
+            fireTableRowsDeleted(row, row);
+        }
+
         public Employee getAt(int r) { return rows.get(r); }
 
         @Override public int getRowCount() { return rows.size(); }
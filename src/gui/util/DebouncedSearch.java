@@ -0,0 +1,94 @@
+package gui.util;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Αναζήτηση καθώς πληκτρολογεί ο χρήστης: κάθε πλήκτρο ξαναξεκινά ένα Swing Timer και μόνο όταν
+ * σταματήσει η πληκτρολόγηση το query τρέχει σε thread παρασκηνίου. Ένα νεότερο αίτημα ακυρώνει
+ * το προηγούμενο και μόνο το αποτέλεσμα του τελευταίου φτάνει (στο EDT) στον πίνακα.
+ * Οι μέθοδοι καλούνται από το EDT.
+ */
+public final class DebouncedSearch<T> {
+    public static final int DEFAULT_DELAY_MILLIS = 150;
+
+    // one shared worker: superseded queries are dropped, so there is never more than a short queue
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "search");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Supplier<Callable<T>> prepare;
+    private final BiConsumer<T, Long> deliver;
+    private final Timer timer;
+    // bumped by every trigger/cancel; a query only delivers if it is still the latest
+    private volatile long generation;
+    private Future<?> pending;
+
+    /**
+     * @param prepare  καλείται στο EDT όταν λήξει η καθυστέρηση· διαβάζει τα πεδία και επιστρέφει το query
+     * @param deliver  παίρνει στο EDT το αποτέλεσμα και τα ms από την έναρξη του query ως την παράδοση
+     */
+    public DebouncedSearch(int delayMillis, Supplier<Callable<T>> prepare, BiConsumer<T, Long> deliver) {
+        this.prepare = prepare;
+        this.deliver = deliver;
+        this.timer = new Timer(delayMillis, e -> runNow());
+        this.timer.setRepeats(false);
+    }
+
+    /** Νέα αλλαγή στα κριτήρια: η αναζήτηση θα τρέξει όταν περάσει η καθυστέρηση χωρίς άλλη αλλαγή. */
+    public void trigger() {
+        supersede();
+        timer.restart();
+    }
+
+    /** Άμεση εκτέλεση (π.χ. κουμπί ή Enter). */
+    public void runNow() {
+        supersede();
+        Callable<T> query = prepare.get();
+        long mine = generation;
+        long started = System.nanoTime();
+        pending = WORKER.submit(() -> {
+            if (mine != generation) return;
+            T result;
+            try {
+                result = query.call();
+            } catch (Exception e) {
+                return; // a failed live search just leaves the table as it was
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (mine == generation) deliver.accept(result, (System.nanoTime() - started) / 1_000_000);
+            });
+        });
+    }
+
+    /** Ακύρωση ό,τι εκκρεμεί· κανένα αποτέλεσμα δεν θα παραδοθεί. */
+    public void cancel() {
+        timer.stop();
+        supersede();
+    }
+
+    /** Ξεκινά αναζήτηση σε κάθε αλλαγή κειμένου του πεδίου. */
+    public void watch(JTextComponent field) {
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { trigger(); }
+            @Override public void removeUpdate(DocumentEvent e) { trigger(); }
+            @Override public void changedUpdate(DocumentEvent e) { trigger(); }
+        });
+    }
+
+    private void supersede() {
+        generation++;
+        if (pending != null) pending.cancel(false);
+        pending = null;
+    }
+}
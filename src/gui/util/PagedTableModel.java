@@ -0,0 +1,122 @@
+package gui.util;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Table model που δεν αντιγράφει ούτε μορφοποιεί όλες τις γραμμές: κρατά απλώς τη λίστα
+ * της υπηρεσίας (αμετάβλητο στιγμιότυπο) και μορφοποιεί κάθε κελί τη στιγμή που ζητείται.
+ * Τα μορφοποιημένα κελιά κρατιούνται σε σελίδες των {@value #PAGE_SIZE} γραμμών με LRU όριο
+ * {@value #MAX_CACHED_PAGES} σελίδων, οπότε η μνήμη μένει σταθερή όσο μεγάλο κι αν είναι το ιστορικό.
+ * Χρήση μόνο από το EDT.
+ */
+public abstract class PagedTableModel<T> extends AbstractTableModel {
+    public static final int PAGE_SIZE = 128;
+    public static final int MAX_CACHED_PAGES = 32;
+
+    private final String[] cols;
+    private List<T> rows = Collections.emptyList();
+    /** true όταν η λίστα είναι δική μας (αντίγραφο) και επιτρέπεται το {@link #append(Object)}. */
+    private boolean owned;
+
+    // page index -> formatted cells (rows x columns), filled lazily; least recently used page is evicted
+    private final Map<Integer, Object[][]> pages = new LinkedHashMap<Integer, Object[][]>(MAX_CACHED_PAGES * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Object[][]> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    protected PagedTableModel(String[] cols) {
+        this.cols = cols;
+    }
+
+    /** Μορφοποίηση ενός κελιού· καλείται μόνο για κελιά που εμφανίζονται. */
+    protected abstract Object format(T row, int column);
+
+    /** Νέα προβολή· η λίστα δεν αντιγράφεται, άρα δεν πρέπει να αλλάξει μετά (π.χ. στιγμιότυπο της υπηρεσίας). */
+    public void setRows(List<T> rows) {
+        this.rows = rows == null ? Collections.<T>emptyList() : rows;
+        owned = false;
+        pages.clear();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Νεότερο στιγμιότυπο της ίδιας λίστας, που μόνο μεγάλωσε στο τέλος:
+     * οι υπάρχουσες γραμμές και η cache μένουν ως έχουν. Αν η λίστα έχασε γραμμές (π.χ. αρχειοθέτηση),
+     * οι θέσεις άλλαξαν και η προβολή ξαναστήνεται όπως με το {@link #setRows(List)}.
+     */
+    public void appendRows(List<T> grown) {
+        int from = rows.size();
+        // removals can be hidden by later additions, so the first and last known rows must still be in place
+        if (grown.size() < from || (from > 0 && (grown.get(0) != rows.get(0) || grown.get(from - 1) != rows.get(from - 1)))) {
+            setRows(grown);
+            return;
+        }
+        rows = grown;
+        owned = false;
+        if (grown.size() > from) fireTableRowsInserted(from, grown.size() - 1);
+    }
+
+    /** Προσθήκη μίας γραμμής στο τέλος (π.χ. σε αποτέλεσμα φίλτρου). */
+    public void append(T row) {
+        if (!owned) {
+            rows = new ArrayList<>(rows);
+            owned = true;
+        }
+        rows.add(row);
+        int index = rows.size() - 1;
+        fireTableRowsInserted(index, index);
+    }
+
+    /**
+     * Ξαναμορφοποίηση των γραμμών που ταιριάζουν. Ελέγχονται μόνο οι σελίδες της cache·
+     * οι υπόλοιπες γραμμές θα μορφοποιηθούν από την αρχή όταν εμφανιστούν.
+     */
+    public void invalidate(Predicate<? super T> which) {
+        for (Iterator<Map.Entry<Integer, Object[][]>> it = pages.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, Object[][]> page = it.next();
+            int first = page.getKey() * PAGE_SIZE;
+            Object[][] cells = page.getValue();
+            for (int i = 0; i < cells.length && first + i < rows.size(); i++) {
+                if (cells[i] == null || !which.test(rows.get(first + i))) continue;
+                cells[i] = null;
+                fireTableRowsUpdated(first + i, first + i);
+            }
+        }
+    }
+
+    public T getAt(int row) { return rows.get(row); }
+
+    @Override public int getRowCount() { return rows.size(); }
+    @Override public int getColumnCount() { return cols.length; }
+    @Override public String getColumnName(int col) { return cols[col]; }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Object[][] cells = pages.get(rowIndex / PAGE_SIZE);
+        if (cells == null) {
+            cells = new Object[PAGE_SIZE][];
+            pages.put(rowIndex / PAGE_SIZE, cells);
+        }
+        Object[] row = cells[rowIndex % PAGE_SIZE];
+        if (row == null) {
+            row = new Object[cols.length];
+            cells[rowIndex % PAGE_SIZE] = row;
+        }
+        Object value = row[columnIndex];
+        if (value == null) {
+            value = format(rows.get(rowIndex), columnIndex);
+            if (value == null) value = "";
+            row[columnIndex] = value;
+        }
+        return value;
+    }
+}
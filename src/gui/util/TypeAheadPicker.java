@@ -0,0 +1,54 @@
+package gui.util;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Επιλογή από μεγάλο σύνολο: πεδίο κειμένου για αναζήτηση και λίστα με τα (λίγα) αποτελέσματα.
+ * Η αναζήτηση γίνεται καθώς πληκτρολογεί ο χρήστης, μέσω {@link DebouncedSearch}, και το lookup
+ * πρέπει να επιστρέφει φραγμένο αριθμό αποτελεσμάτων, ώστε το κόστος να μην εξαρτάται από το μέγεθος των δεδομένων.
+ */
+public class TypeAheadPicker<T> extends JPanel {
+    private final JTextField queryField;
+    private final JComboBox<T> results = new JComboBox<>();
+    private final DebouncedSearch<List<T>> search;
+
+    /**
+     * @param lookup τρέχει εκτός EDT με το κείμενο του πεδίου και επιστρέφει τα αποτελέσματα
+     */
+    public TypeAheadPicker(int columns, Function<String, List<T>> lookup) {
+        super(new BorderLayout(4, 0));
+        this.queryField = new JTextField(columns);
+        this.search = new DebouncedSearch<>(DebouncedSearch.DEFAULT_DELAY_MILLIS, () -> {
+            String text = queryField.getText().trim();
+            return () -> lookup.apply(text);
+        }, (found, millis) -> show(found));
+        search.watch(queryField);
+
+        add(queryField, BorderLayout.WEST);
+        add(results, BorderLayout.CENTER);
+    }
+
+    /** Πρώτη αναζήτηση (με ό,τι γράφει ήδη το πεδίο)· καλείται όταν ανοίγει η φόρμα. */
+    public void start() {
+        search.runNow();
+    }
+
+    public void cancel() {
+        search.cancel();
+    }
+
+    /** Η επιλεγμένη τιμή ή null αν δεν υπάρχει αποτέλεσμα. */
+    @SuppressWarnings("unchecked")
+    public T getSelected() {
+        return (T) results.getSelectedItem();
+    }
+
+    private void show(List<T> found) {
+        DefaultComboBoxModel<T> model = new DefaultComboBoxModel<>();
+        for (T item : found) model.addElement(item);
+        results.setModel(model); // the first hit is selected, so typing a unique key is enough
+    }
+}
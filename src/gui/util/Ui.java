@@ -1,9 +1,18 @@
 package gui.util;
 
+import api.service.ValidationException;
+
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 public final class Ui {
+    private static final String BUSY_COUNT = "ui.busyCount";
+
     private Ui(){}
 
     public static void error(Component parent, String msg) {
@@ -17,4 +26,38 @@ public final class Ui {
     public static boolean confirm(Component parent, String msg) {
         return JOptionPane.showConfirmDialog(parent, msg, "Επιβεβαίωση", JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION;
     }
+
+    /**
+     * Περιμένει μια εργασία παρασκηνίου χωρίς να μπλοκάρει το EDT: όσο τρέχει, το παράθυρο δείχνει
+     * cursor αναμονής και δεν δέχεται κλικ. Το αποτέλεσμα περνά στο onSuccess μέσα στο EDT·
+     * τα σφάλματα εμφανίζονται με {@link #error(Component, String)}.
+     */
+    public static <T> void run(Component parent, CompletableFuture<T> task, Consumer<T> onSuccess) {
+        JRootPane root = SwingUtilities.getRootPane(parent);
+        setBusy(root, true);
+        task.whenComplete((result, failure) -> SwingUtilities.invokeLater(() -> {
+            setBusy(root, false);
+            if (failure == null) {
+                onSuccess.accept(result);
+                return;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            if (cause instanceof ValidationException) error(parent, cause.getMessage());
+            else if (cause instanceof IOException) error(parent, "Σφάλμα αποθήκευσης: " + cause.getMessage());
+            else error(parent, "Απρόσμενο σφάλμα: " + cause.getMessage());
+        }));
+    }
+
+    // nested operations on the same window keep it busy until the last one finishes
+    private static void setBusy(JRootPane root, boolean busy) {
+        if (root == null) return;
+        Object count = root.getClientProperty(BUSY_COUNT);
+        int n = (count instanceof Integer ? (Integer) count : 0) + (busy ? 1 : -1);
+        root.putClientProperty(BUSY_COUNT, n);
+
+        Component glass = root.getGlassPane();
+        if (glass.getMouseListeners().length == 0) glass.addMouseListener(new MouseAdapter() {}); // swallow clicks
+        glass.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        glass.setVisible(n > 0);
+    }
 }
@@ -0,0 +1,226 @@
+package server;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ελάχιστο JSON για το API: εγγραφή από Map/List/String/Number/Boolean/LocalDate/enum
+ * και ανάγνωση σε Map (LinkedHashMap), List, String, Long/Double, Boolean ή null.
+ */
+final class Json {
+    private final String src;
+    private int pos;
+
+    private Json(String src) {
+        this.src = src;
+    }
+
+    // ---------------- Writing ----------------
+
+    static String write(Object value) {
+        StringBuilder sb = new StringBuilder(256);
+        write(sb, value);
+        return sb.toString();
+    }
+
+    private static void write(StringBuilder sb, Object v) {
+        if (v == null) {
+            sb.append("null");
+        } else if (v instanceof String) {
+            quote(sb, (String) v);
+        } else if (v instanceof Number || v instanceof Boolean) {
+            sb.append(v);
+        } else if (v instanceof LocalDate) {
+            quote(sb, v.toString());
+        } else if (v instanceof Enum) {
+            quote(sb, ((Enum<?>) v).name());
+        } else if (v instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) v).entrySet()) {
+                if (!first) sb.append(',');
+                first = false;
+                quote(sb, String.valueOf(e.getKey()));
+                sb.append(':');
+                write(sb, e.getValue());
+            }
+            sb.append('}');
+        } else if (v instanceof Iterable) {
+            sb.append('[');
+            boolean first = true;
+            for (Object o : (Iterable<?>) v) {
+                if (!first) sb.append(',');
+                first = false;
+                write(sb, o);
+            }
+            sb.append(']');
+        } else {
+            quote(sb, v.toString());
+        }
+    }
+
+    private static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    // ---------------- Parsing ----------------
+
+    /** @throws IllegalArgumentException αν το κείμενο δεν είναι έγκυρο JSON */
+    static Object parse(String text) {
+        Json p = new Json(text);
+        p.skipSpace();
+        Object v = p.value();
+        p.skipSpace();
+        if (p.pos != p.src.length()) throw p.error("trailing characters");
+        return v;
+    }
+
+    private Object value() {
+        if (pos >= src.length()) throw error("unexpected end");
+        char c = src.charAt(pos);
+        switch (c) {
+            case '{': return object();
+            case '[': return array();
+            case '"': return string();
+            case 't': return literal("true", Boolean.TRUE);
+            case 'f': return literal("false", Boolean.FALSE);
+            case 'n': return literal("null", null);
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return number();
+                throw error("unexpected '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> object() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        pos++; // {
+        skipSpace();
+        if (peek('}')) return out;
+        while (true) {
+            skipSpace();
+            if (pos >= src.length() || src.charAt(pos) != '"') throw error("expected key");
+            String key = string();
+            skipSpace();
+            expect(':');
+            skipSpace();
+            out.put(key, value());
+            skipSpace();
+            if (peek('}')) return out;
+            expect(',');
+        }
+    }
+
+    private List<Object> array() {
+        List<Object> out = new ArrayList<>();
+        pos++; // [
+        skipSpace();
+        if (peek(']')) return out;
+        while (true) {
+            skipSpace();
+            out.add(value());
+            skipSpace();
+            if (peek(']')) return out;
+            expect(',');
+        }
+    }
+
+    private String string() {
+        pos++; // opening quote
+        StringBuilder sb = new StringBuilder();
+        while (pos < src.length()) {
+            char c = src.charAt(pos++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= src.length()) break;
+            char e = src.charAt(pos++);
+            switch (e) {
+                case '"': case '\\': case '/': sb.append(e); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if (pos + 4 > src.length()) throw error("bad escape");
+                    try {
+                        sb.append((char) Integer.parseInt(src.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException bad) {
+                        throw error("bad escape");
+                    }
+                    pos += 4;
+                    break;
+                default: throw error("bad escape");
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    private Object number() {
+        int start = pos;
+        if (src.charAt(pos) == '-') pos++;
+        boolean integral = true;
+        while (pos < src.length()) {
+            char c = src.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                pos++;
+            } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                integral = false;
+                pos++;
+            } else {
+                break;
+            }
+        }
+        String n = src.substring(start, pos);
+        try {
+            return integral ? (Object) Long.parseLong(n) : (Object) Double.parseDouble(n);
+        } catch (NumberFormatException bad) {
+            throw error("bad number");
+        }
+    }
+
+    private Object literal(String word, Object value) {
+        if (!src.startsWith(word, pos)) throw error("unexpected token");
+        pos += word.length();
+        return value;
+    }
+
+    private boolean peek(char c) {
+        if (pos < src.length() && src.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!peek(c)) throw error("expected '" + c + "'");
+    }
+
+    private void skipSpace() {
+        while (pos < src.length() && Character.isWhitespace(src.charAt(pos))) pos++;
+    }
+
+    private IllegalArgumentException error(String what) {
+        return new IllegalArgumentException("Μη έγκυρο JSON (θέση " + pos + "): " + what);
+    }
+}
@@ -0,0 +1,534 @@
+package server;
+
+import api.model.Car;
+import api.model.CarStatus;
+import api.model.Customer;
+import api.model.Employee;
+import api.model.Rental;
+import api.service.CarRentalSystem;
+import api.service.RentalPage;
+import api.service.RentalQuery;
+import api.service.ValidationException;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP/JSON API πάνω από ένα κοινό {@link CarRentalSystem} για πολλά γκισέ ταυτόχρονα.
+ * <pre>
+ * POST   /api/login                  {username, password} → {token, employee}
+ * POST   /api/logout
+ * GET    /api/cars?brand=&amp;plate=&amp;model=&amp;color=&amp;type=&amp;status=
+ * GET    /api/cars/available?type=&amp;from=&amp;to=
+ * GET    /api/cars/{id}     POST /api/cars     PUT /api/cars/{id}
+ * GET    /api/customers?afm=&amp;name=&amp;phone=&amp;limit=
+ * GET    /api/customers/{afm}   POST /api/customers   PUT /api/customers/{afm}
+ * GET    /api/employees     POST /api/employees   DELETE /api/employees/{username}
+ * GET    /api/rentals?active=true | customer={afm} | car={id} | from={date}&amp;to={date}
+ * GET    /api/rentals/page?sort=id|start|end&amp;desc=&amp;size=&amp;customer=&amp;car=&amp;active=&amp;token= → {rentals, next}
+ * GET    /api/rentals/{id}  POST /api/rentals {carId, customerAfm, start, end}
+ * POST   /api/rentals/{id}/return
+ * </pre>
+ * Κάθε αίτημα εκτός του login χρειάζεται {@code Authorization: Bearer <token>}· ο υπάλληλος
+ * της συνεδρίας περνά ρητά στις μεθόδους του συστήματος (δεν χρησιμοποιείται το κοινό login).
+ * Σφάλματα επικύρωσης επιστρέφουν 400 με {@code {"error": "..."}}.
+ */
+public final class RentalApiServer {
+    private static final int BACKLOG = 512;
+    private static final int MAX_BODY_BYTES = 1024 * 1024;
+    private static final long SESSION_IDLE_MILLIS = TimeUnit.HOURS.toMillis(8);
+
+    private final CarRentalSystem system;
+    private final HttpServer http;
+    private final ExecutorService executor;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    private static final class Session {
+        final Employee employee;
+        volatile long lastSeen = System.currentTimeMillis();
+
+        Session(Employee employee) {
+            this.employee = employee;
+        }
+    }
+
+    /** Σφάλμα με συγκεκριμένο HTTP status. */
+    private static final class ApiError extends Exception {
+        final int status;
+
+        ApiError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    public RentalApiServer(CarRentalSystem system, InetSocketAddress address) throws IOException {
+        this.system = system;
+        this.http = HttpServer.create(address, BACKLOG);
+        this.executor = newRequestExecutor();
+        http.setExecutor(executor);
+        http.createContext("/api/", this::handle);
+    }
+
+    public void start() {
+        http.start();
+    }
+
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    /**
+     * Σταματά να δέχεται αιτήματα και περιμένει έως delaySeconds να τελειώσουν όσα εκτελούνται
+     * (και οι εγγραφές τους να μπουν στο store).
+     * @return false αν κάποιο αίτημα έτρεχε ακόμη όταν έληξε η αναμονή
+     */
+    public boolean stop(int delaySeconds) {
+        http.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Ένα virtual thread ανά αίτημα όπου υπάρχει (Java 21+)· αλλιώς cached pool από daemon threads.
+     * Τα handlers μπλοκάρουν σε locks και I/O, οπότε δεν χρειάζεται όριο στο πλήθος.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException notAvailable) {
+            AtomicInteger n = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "api-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // ---------------- Dispatch ----------------
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            String path = ex.getRequestURI().getPath().substring("/api/".length());
+            List<String> seg = new ArrayList<>();
+            for (String s : path.split("/")) if (!s.isEmpty()) seg.add(decode(s));
+            if (seg.isEmpty()) throw new ApiError(404, "Άγνωστο endpoint.");
+
+            Object result = route(ex, ex.getRequestMethod(), seg);
+            send(ex, 200, result);
+        } catch (ApiError e) {
+            send(ex, e.status, error(e.getMessage()));
+        } catch (ValidationException e) {
+            send(ex, 400, error(e.getMessage()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            send(ex, 400, error(e.getMessage()));
+        } catch (IOException | RuntimeException e) {
+            send(ex, 500, error("Σφάλμα διακομιστή: " + e.getMessage()));
+        } finally {
+            ex.close();
+        }
+    }
+
+    private Object route(HttpExchange ex, String method, List<String> seg)
+            throws ApiError, ValidationException, IOException {
+        String resource = seg.get(0);
+        if (resource.equals("login") && seg.size() == 1) {
+            requireMethod(method, "POST");
+            return login(readBody(ex));
+        }
+
+        Employee actor = authenticate(ex);
+        Map<String, String> q = query(ex);
+        switch (resource) {
+            case "logout":
+                requireMethod(method, "POST");
+                sessions.remove(token(ex));
+                return Collections.emptyMap();
+            case "cars":
+                return cars(ex, method, seg, q, actor);
+            case "customers":
+                return customers(ex, method, seg, q, actor);
+            case "employees":
+                return employees(ex, method, seg, actor);
+            case "rentals":
+                return rentals(ex, method, seg, q, actor);
+            default:
+                throw new ApiError(404, "Άγνωστο endpoint.");
+        }
+    }
+
+    private Object login(Map<String, Object> body) throws ValidationException {
+        Employee e = system.authenticate(str(body, "username"), str(body, "password"));
+        expireIdleSessions();
+        byte[] raw = new byte[32];
+        random.nextBytes(raw);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        sessions.put(token, new Session(e));
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("token", token);
+        out.put("employee", json(e));
+        return out;
+    }
+
+    private Employee authenticate(HttpExchange ex) throws ApiError {
+        String token = token(ex);
+        Session s = token == null ? null : sessions.get(token);
+        long now = System.currentTimeMillis();
+        if (s == null || now - s.lastSeen > SESSION_IDLE_MILLIS) {
+            if (s != null) sessions.remove(token);
+            throw new ApiError(401, "Απαιτείται σύνδεση (login).");
+        }
+        s.lastSeen = now;
+        return s.employee;
+    }
+
+    private void expireIdleSessions() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(s -> now - s.lastSeen > SESSION_IDLE_MILLIS);
+    }
+
+    private static String token(HttpExchange ex) {
+        String h = ex.getRequestHeaders().getFirst("Authorization");
+        if (h == null || !h.regionMatches(true, 0, "Bearer ", 0, 7)) return null;
+        return h.substring(7).trim();
+    }
+
+    // ---------------- Resources ----------------
+
+    private Object cars(HttpExchange ex, String method, List<String> seg, Map<String, String> q, Employee actor)
+            throws ApiError, ValidationException, IOException {
+        if (seg.size() == 1) {
+            if (method.equals("GET")) {
+                String status = q.get("status");
+                List<Car> found = system.searchCars(q.get("brand"), q.get("plate"), q.get("model"), q.get("color"),
+                        q.get("type"), isBlank(status) ? null : CarStatus.fromGreek(status));
+                return jsonCars(found);
+            }
+            requireMethod(method, "POST");
+            Map<String, Object> body = readBody(ex);
+            Car car = carFrom(body, intField(body, "id"), CarStatus.AVAILABLE);
+            system.addCar(actor, car);
+            return json(car);
+        }
+        if (seg.size() == 2 && seg.get(1).equals("available")) {
+            requireMethod(method, "GET");
+            return jsonCars(system.findAvailableCars(q.get("type"), date(q.get("from")), date(q.get("to"))));
+        }
+        if (seg.size() == 2) {
+            int id = parseInt(seg.get(1));
+            Car existing = system.findCarById(id);
+            if (existing == null) throw new ApiError(404, "Το αυτοκίνητο δεν βρέθηκε.");
+            if (method.equals("GET")) return json(existing);
+            requireMethod(method, "PUT");
+            Car car = carFrom(readBody(ex), id, existing.getStatus());
+            system.updateCar(actor, car);
+            return json(system.findCarById(id));
+        }
+        throw new ApiError(404, "Άγνωστο endpoint.");
+    }
+
+    private Object customers(HttpExchange ex, String method, List<String> seg, Map<String, String> q, Employee actor)
+            throws ApiError, ValidationException, IOException {
+        if (seg.size() == 1) {
+            if (method.equals("GET")) {
+                String limit = q.get("limit");
+                List<Customer> found = isBlank(limit)
+                        ? system.searchCustomers(q.get("afm"), q.get("name"), q.get("phone"))
+                        : system.searchCustomers(q.get("afm"), q.get("name"), q.get("phone"), parseInt(limit));
+                List<Object> out = new ArrayList<>(found.size());
+                for (Customer c : found) out.add(json(c));
+                return out;
+            }
+            requireMethod(method, "POST");
+            Map<String, Object> body = readBody(ex);
+            Customer c = new Customer(str(body, "afm"), str(body, "fullName"), str(body, "phone"), str(body, "email"));
+            system.addCustomer(actor, c);
+            return json(c);
+        }
+        if (seg.size() == 2) {
+            String afm = seg.get(1);
+            Customer existing = system.findCustomerByAfm(afm);
+            if (existing == null) throw new ApiError(404, "Ο πελάτης δεν βρέθηκε.");
+            if (method.equals("GET")) return json(existing);
+            requireMethod(method, "PUT");
+            Map<String, Object> body = readBody(ex);
+            system.updateCustomer(actor, new Customer(existing.getAfm(), str(body, "fullName"), str(body, "phone"), str(body, "email")));
+            return json(system.findCustomerByAfm(afm));
+        }
+        throw new ApiError(404, "Άγνωστο endpoint.");
+    }
+
+    private Object employees(HttpExchange ex, String method, List<String> seg, Employee actor)
+            throws ApiError, ValidationException, IOException {
+        if (seg.size() == 1) {
+            if (method.equals("GET")) {
+                List<Object> out = new ArrayList<>();
+                for (Employee e : system.getEmployees()) out.add(json(e));
+                return out;
+            }
+            requireMethod(method, "POST");
+            Map<String, Object> body = readBody(ex);
+            Employee e = new Employee(str(body, "fullName"), str(body, "username"), str(body, "email"), str(body, "password"));
+            system.addEmployee(actor, e);
+            return json(e);
+        }
+        if (seg.size() == 2) {
+            requireMethod(method, "DELETE");
+            String username = seg.get(1);
+            system.deleteEmployee(actor, username);
+            sessions.values().removeIf(s -> s.employee.getUsername().equals(username));
+            return Collections.emptyMap();
+        }
+        throw new ApiError(404, "Άγνωστο endpoint.");
+    }
+
+    private Object rentals(HttpExchange ex, String method, List<String> seg, Map<String, String> q, Employee actor)
+            throws ApiError, ValidationException, IOException {
+        if (seg.size() == 1) {
+            if (method.equals("GET")) {
+                List<Rental> found;
+                if ("true".equalsIgnoreCase(q.get("active"))) found = system.getActiveRentals();
+                else if (!isBlank(q.get("customer"))) found = system.getRentalsForCustomer(q.get("customer"));
+                else if (!isBlank(q.get("car"))) found = system.getRentalsForCar(parseInt(q.get("car")));
+                else if (!isBlank(q.get("from")) || !isBlank(q.get("to"))) found = system.getRentalsBetween(date(q.get("from")), date(q.get("to")));
+                else found = system.getRentals();
+                List<Object> out = new ArrayList<>(found.size());
+                for (Rental r : found) out.add(json(r));
+                return out;
+            }
+            requireMethod(method, "POST");
+            Map<String, Object> body = readBody(ex);
+            Rental r = system.rentCar(actor, intField(body, "carId"), str(body, "customerAfm"),
+                    date(str(body, "start")), date(str(body, "end")));
+            return json(r);
+        }
+        if (seg.size() == 2 && seg.get(1).equals("page")) {
+            requireMethod(method, "GET");
+            RentalQuery query = new RentalQuery()
+                    .sortBy(sortKey(q.get("sort")))
+                    .descending("true".equalsIgnoreCase(q.get("desc")))
+                    .pageSize(isBlank(q.get("size")) ? RentalQuery.DEFAULT_PAGE_SIZE : parseInt(q.get("size")))
+                    .customer(q.get("customer"))
+                    .car(isBlank(q.get("car")) ? null : parseInt(q.get("car")))
+                    .activeOnly("true".equalsIgnoreCase(q.get("active")))
+                    .pageToken(isBlank(q.get("token")) ? null : q.get("token"));
+            RentalPage page = system.queryRentals(query);
+            List<Object> rows = new ArrayList<>(page.getRentals().size());
+            for (Rental r : page.getRentals()) rows.add(json(r));
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("rentals", rows);
+            out.put("next", page.getNextToken());
+            return out;
+        }
+        long id = parseLong(seg.get(1));
+        if (seg.size() == 2) {
+            requireMethod(method, "GET");
+            Rental r = system.findRentalById(id);
+            if (r == null) throw new ApiError(404, "Η ενοικίαση δεν βρέθηκε.");
+            return json(r);
+        }
+        if (seg.size() == 3 && seg.get(2).equals("return")) {
+            requireMethod(method, "POST");
+            system.returnRental(actor, id);
+            return json(system.findRentalById(id));
+        }
+        throw new ApiError(404, "Άγνωστο endpoint.");
+    }
+
+    // ---------------- Mapping ----------------
+
+    private static Car carFrom(Map<String, Object> body, int id, CarStatus defaultStatus) {
+        String status = str(body, "status");
+        return new Car(id, str(body, "plate"), str(body, "brand"), str(body, "type"), str(body, "model"),
+                intField(body, "year"), str(body, "color"), isBlank(status) ? defaultStatus : CarStatus.fromGreek(status));
+    }
+
+    private static List<Object> jsonCars(List<Car> cars) {
+        List<Object> out = new ArrayList<>(cars.size());
+        for (Car c : cars) out.add(json(c));
+        return out;
+    }
+
+    private static Map<String, Object> json(Car c) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", c.getId());
+        m.put("plate", c.getPlate());
+        m.put("brand", c.getBrand());
+        m.put("type", c.getType());
+        m.put("model", c.getModel());
+        m.put("year", c.getYear());
+        m.put("color", c.getColor());
+        m.put("status", c.getStatus());
+        return m;
+    }
+
+    private static Map<String, Object> json(Customer c) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("afm", c.getAfm());
+        m.put("fullName", c.getFullName());
+        m.put("phone", c.getPhone());
+        m.put("email", c.getEmail());
+        return m;
+    }
+
+    // the password never leaves the server
+    private static Map<String, Object> json(Employee e) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("username", e.getUsername());
+        m.put("fullName", e.getFullName());
+        m.put("email", e.getEmail());
+        return m;
+    }
+
+    private static Map<String, Object> json(Rental r) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("rentalId", r.getRentalId());
+        m.put("carId", r.getCarId());
+        m.put("customerAfm", r.getCustomerAfm());
+        m.put("employee", r.getEmployeeUsername());
+        m.put("start", r.getStartDate());
+        m.put("end", r.getEndDate());
+        m.put("returned", r.isReturned());
+        m.put("actualReturnDate", r.getActualReturnDate());
+        return m;
+    }
+
+    private static Map<String, Object> error(String message) {
+        return Collections.singletonMap("error", message);
+    }
+
+    // ---------------- HTTP helpers ----------------
+
+    private static void requireMethod(String method, String expected) throws ApiError {
+        if (!method.equals(expected)) throw new ApiError(405, "Μη υποστηριζόμενη μέθοδος: " + method);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> readBody(HttpExchange ex) throws IOException, ApiError {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        try (InputStream in = ex.getRequestBody()) {
+            int n;
+            while ((n = in.read(chunk)) > 0) {
+                if (buf.size() + n > MAX_BODY_BYTES) throw new ApiError(413, "Πολύ μεγάλο αίτημα.");
+                buf.write(chunk, 0, n);
+            }
+        }
+        if (buf.size() == 0) return Collections.emptyMap();
+        Object parsed = Json.parse(new String(buf.toByteArray(), StandardCharsets.UTF_8));
+        if (!(parsed instanceof Map)) throw new ApiError(400, "Αναμενόταν JSON αντικείμενο.");
+        return (Map<String, Object>) parsed;
+    }
+
+    private static void send(HttpExchange ex, int status, Object body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        Headers h = ex.getResponseHeaders();
+        h.set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange ex) {
+        String raw = ex.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) return Collections.emptyMap();
+        Map<String, String> out = new LinkedHashMap<>();
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) out.put(decode(pair), "");
+            else out.put(decode(pair.substring(0, eq)), decode(pair.substring(eq + 1)));
+        }
+        return out;
+    }
+
+    private static String decode(String s) {
+        try {
+            return URLDecoder.decode(s, "UTF-8");
+        } catch (UnsupportedEncodingException impossible) {
+            throw new IllegalStateException(impossible);
+        }
+    }
+
+    private static String str(Map<String, Object> body, String key) {
+        Object v = body.get(key);
+        return v == null ? null : v.toString();
+    }
+
+    private static int intField(Map<String, Object> body, String key) {
+        Object v = body.get(key);
+        if (v instanceof Number) {
+            // intValue() would truncate 1.9 or wrap 2^31 into another (existing) id
+            double d = ((Number) v).doubleValue();
+            if (d != Math.rint(d) || d < Integer.MIN_VALUE || d > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Μη έγκυρος αριθμός: " + v);
+            }
+            return ((Number) v).intValue();
+        }
+        if (v == null) throw new IllegalArgumentException("Λείπει το πεδίο " + key + ".");
+        return parseInt(v.toString());
+    }
+
+    private static int parseInt(String s) {
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Μη έγκυρος αριθμός: " + s);
+        }
+    }
+
+    private static long parseLong(String s) {
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Μη έγκυρος αριθμός: " + s);
+        }
+    }
+
+    private static RentalQuery.SortKey sortKey(String s) {
+        if (isBlank(s)) return RentalQuery.SortKey.ID;
+        for (RentalQuery.SortKey k : RentalQuery.SortKey.values()) {
+            if (k.name().equalsIgnoreCase(s.trim())) return k;
+        }
+        throw new IllegalArgumentException("Άγνωστη ταξινόμηση: " + s);
+    }
+
+    private static LocalDate date(String s) {
+        return isBlank(s) ? null : LocalDate.parse(s.trim());
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+}
@@ -0,0 +1,37 @@
+package server;
+
+import api.service.CarRentalSystem;
+import api.storage.DataStore;
+import api.storage.Durability;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Headless εκκίνηση: ένα κοινό σύστημα πάνω από το data/ για όλα τα γκισέ, μέσω HTTP/JSON.
+ * Χρήση: {@code java server.ServerMain [port]} (προεπιλογή 8080).
+ */
+public class ServerMain {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int STOP_GRACE_SECONDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+
+        // group commit: concurrent desks share one fsync per interval; the server owns the store and closes it last
+        DataStore store = new DataStore(Durability.INTERVAL, 200, false);
+        CarRentalSystem system = new CarRentalSystem(store);
+        RentalApiServer server = new RentalApiServer(system, new InetSocketAddress(port));
+        // one hook, in order: no new requests, running ones finish, then their writes are flushed
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (!server.stop(STOP_GRACE_SECONDS)) System.err.println("Car rental API: requests still running at shutdown");
+            try {
+                system.close();
+            } catch (IOException e) {
+                System.err.println("DataStore: pending writes lost: " + e.getMessage());
+            }
+        }, "api-shutdown"));
+        server.start();
+        System.out.println("Car rental API listening on port " + server.getPort());
+    }
+}